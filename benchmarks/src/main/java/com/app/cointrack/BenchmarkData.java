@@ -0,0 +1,60 @@
+package com.app.cointrack;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Deterministic inputs shared by the benchmarks.
+ */
+public final class BenchmarkData {
+    private BenchmarkData() {}
+
+    public static List<String> currencies(int count) {
+        List<String> currencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            currencies.add("coin-" + i);
+        }
+        return currencies;
+    }
+
+    public static Set<String> targets(int count) {
+        Set<String> targets = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            targets.add("t" + i);
+        }
+        return targets;
+    }
+
+    public static CurrencyRates rates(String source, int targets) {
+        Random random = new Random(targets);
+        CurrencyRates.Builder builder = CurrencyRates.builder(source, targets);
+        for (String target : targets(targets)) {
+            builder.add(target, Math.round(random.nextDouble() * 1_000_000_000) / 10_000.0);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a {@code /simple/price} payload with the given number of currencies and targets per currency.
+     */
+    public static byte[] simplePricePayload(int currencies, int targets) {
+        StringBuilder payload = new StringBuilder("{");
+        for (String currency : currencies(currencies)) {
+            if (payload.length() > 1) {
+                payload.append(',');
+            }
+            payload.append('"').append(currency).append("\":{");
+            CurrencyRates rates = rates(currency, targets);
+            for (int i = 0; i < rates.size(); i++) {
+                if (i > 0) {
+                    payload.append(',');
+                }
+                payload.append('"').append(rates.targetAt(i)).append("\":").append(rates.rateAt(i));
+            }
+            payload.append('}');
+        }
+        return payload.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
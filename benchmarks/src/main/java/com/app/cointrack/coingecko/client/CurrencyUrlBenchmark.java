@@ -0,0 +1,37 @@
+package com.app.cointrack.coingecko.client;
+
+import com.app.cointrack.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyUrlBenchmark {
+    private static final String BASEURL = "https://api.coingecko.com/api/v3";
+
+    @Param({"1", "50", "250"})
+    private int currencies;
+    @Param({"1", "10", "50"})
+    private int targets;
+
+    private List<String> currencyIds;
+    private Set<String> filters;
+
+    @Setup
+    public void setUp() {
+        currencyIds = BenchmarkData.currencies(currencies);
+        filters = BenchmarkData.targets(targets);
+    }
+
+    @Benchmark
+    public String buildGetCurrencyUrl() {
+        return CoinGeckoClient.buildGetCurrencyUrl(BASEURL, currencyIds, filters);
+    }
+}
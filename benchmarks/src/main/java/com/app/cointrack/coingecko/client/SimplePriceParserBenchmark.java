@@ -0,0 +1,41 @@
+package com.app.cointrack.coingecko.client;
+
+import com.app.cointrack.BenchmarkData;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplePriceParserBenchmark {
+    @Param({"1", "50", "250"})
+    private int currencies;
+    @Param({"1", "10", "50"})
+    private int targets;
+
+    private final JsonFactory jsonFactory = new ObjectMapper().getFactory();
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = BenchmarkData.simplePricePayload(currencies, targets);
+    }
+
+    @Benchmark
+    public Map<String, CurrencyRates> parse() throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(new ByteArrayInputStream(payload))) {
+            return SimplePriceParser.parse(parser, currencies);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.app.cointrack.currency.exchange;
+
+import com.app.cointrack.BenchmarkData;
+import com.app.cointrack.currency.dto.ExchangeResultDTO;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeEngineBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    private int targets;
+
+    private ExchangeEngine engine;
+    private CurrencyRates rates;
+
+    @Setup
+    public void setUp() {
+        engine = new ExchangeEngine(8, RoundingMode.HALF_EVEN, "0:0.01,10000:0.005", 256);
+        rates = BenchmarkData.rates("bitcoin", targets);
+    }
+
+    @Benchmark
+    public List<ExchangeResultDTO> exchange() {
+        return engine.exchange(rates, 1234.5678);
+    }
+}
@@ -0,0 +1,39 @@
+package com.app.cointrack.currency.factory;
+
+import com.app.cointrack.BenchmarkData;
+import com.app.cointrack.currency.dto.CurrencyResponseDTO;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyDTOFactoryBenchmark {
+    @Param({"1", "10", "50"})
+    private int targets;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CurrencyRates rates;
+
+    @Setup
+    public void setUp() {
+        rates = BenchmarkData.rates("bitcoin", targets);
+    }
+
+    @Benchmark
+    public CurrencyResponseDTO create() {
+        return CurrencyDTOFactory.create(rates);
+    }
+
+    @Benchmark
+    public byte[] createAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(CurrencyDTOFactory.create(rates));
+    }
+}
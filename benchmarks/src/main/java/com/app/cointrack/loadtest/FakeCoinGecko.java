@@ -0,0 +1,158 @@
+package com.app.cointrack.loadtest;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local CoinGecko stand-in on top of {@link MockWebServer}. Serves {@code /coins/list}, {@code /coins/markets},
+ * {@code /exchange_rates} and {@code /simple/price} for {@code coins} generated coins, delaying every price response
+ * by the configured latency plus uniform jitter and failing the configured share of them.
+ */
+final class FakeCoinGecko implements AutoCloseable {
+    private final MockWebServer server = new MockWebServer();
+    private final LoadTestConfig config;
+    private final List<String> defaultTargets;
+    private final String coinList;
+    private final AtomicLong priceRequests = new AtomicLong();
+    private final AtomicLong failedPriceRequests = new AtomicLong();
+
+    FakeCoinGecko(LoadTestConfig config) {
+        this.config = config;
+        this.defaultTargets = LoadTestData.targets(config.targets());
+        this.coinList = buildCoinList(config.coins());
+    }
+
+    void start() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                HttpUrl url = request.getRequestUrl();
+                if (url == null) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                String path = url.encodedPath();
+                if (path.endsWith("/coins/list")) {
+                    return json(coinList);
+                } else if (path.endsWith("/coins/markets")) {
+                    return json(buildMarkets(url));
+                } else if (path.endsWith("/exchange_rates")) {
+                    return json(buildExchangeRates());
+                } else if (path.endsWith("/simple/price")) {
+                    return price(url);
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+    }
+
+    String baseUrl() {
+        return server.url("/api/v3").toString();
+    }
+
+    long priceRequests() {
+        return priceRequests.get();
+    }
+
+    long failedPriceRequests() {
+        return failedPriceRequests.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse price(HttpUrl url) {
+        priceRequests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = config.latency().toMillis()
+                + (config.latencyJitter().isZero() ? 0 : random.nextLong(config.latencyJitter().toMillis() + 1));
+        if (random.nextDouble() < config.errorRate()) {
+            failedPriceRequests.incrementAndGet();
+            return new MockResponse().setResponseCode(500)
+                    .setBody("{\"error\":\"Internal Server Error\"}")
+                    .setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+        }
+        List<String> ids = split(url.queryParameter("ids"));
+        List<String> targets = split(url.queryParameter("vs_currencies"));
+        if (targets.isEmpty()) {
+            targets = defaultTargets;
+        }
+        StringBuilder body = new StringBuilder("{");
+        for (String id : ids) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append('"').append(id).append("\":{");
+            for (int i = 0; i < targets.size(); i++) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                body.append('"').append(targets.get(i)).append("\":").append(LoadTestData.rate(id, targets.get(i)));
+            }
+            body.append('}');
+        }
+        return json(body.append('}').toString()).setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+    }
+
+    private String buildMarkets(HttpUrl url) {
+        int perPage = Integer.parseInt(defaultIfNull(url.queryParameter("per_page"), "250"));
+        int page = Integer.parseInt(defaultIfNull(url.queryParameter("page"), "1"));
+        StringBuilder body = new StringBuilder("[");
+        for (int rank = (page - 1) * perPage + 1; rank <= Math.min(page * perPage, config.coins()); rank++) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append("{\"id\":\"").append(LoadTestData.coin(rank - 1)).append("\",\"market_cap_rank\":").append(rank).append('}');
+        }
+        return body.append(']').toString();
+    }
+
+    private String buildExchangeRates() {
+        StringBuilder body = new StringBuilder("{\"rates\":{\"usd\":{\"value\":")
+                .append(LoadTestData.rate("bitcoin", "usd")).append('}');
+        for (String target : defaultTargets) {
+            body.append(",\"").append(target).append("\":{\"value\":").append(LoadTestData.rate("bitcoin", target)).append('}');
+        }
+        return body.append("}}").toString();
+    }
+
+    private static String buildCoinList(int coins) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < coins; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            String id = LoadTestData.coin(i);
+            body.append("{\"id\":\"").append(id).append("\",\"symbol\":\"c").append(i)
+                    .append("\",\"name\":\"Coin ").append(i).append("\"}");
+        }
+        return body.append(']').toString();
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+
+    private static List<String> split(String values) {
+        return values == null || values.isEmpty() ? List.of() : Arrays.asList(values.split(","));
+    }
+
+    private static String defaultIfNull(String value, String defaultValue) {
+        return value == null ? defaultValue : value;
+    }
+}
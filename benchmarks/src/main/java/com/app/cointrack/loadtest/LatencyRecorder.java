@@ -0,0 +1,52 @@
+package com.app.cointrack.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed capacity store of request latencies measured from the intended start of every request, so a stalled
+ * server is charged for the requests it delayed (no coordinated omission).
+ */
+final class LatencyRecorder {
+    private final AtomicLongArray latencies;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    LatencyRecorder(int capacity) {
+        this.latencies = new AtomicLongArray(capacity);
+    }
+
+    void record(long latencyNanos, boolean successful) {
+        int i = count.getAndIncrement();
+        if (i < latencies.length()) {
+            latencies.set(i, latencyNanos);
+        }
+        if (!successful) {
+            errors.incrementAndGet();
+        }
+    }
+
+    Summary summarize(double seconds) {
+        int size = Math.min(count.get(), latencies.length());
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        return new Summary(size, errors.get(), size / seconds,
+                millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 0.999),
+                size == 0 ? 0 : sorted[size - 1] / 1_000_000.0);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)] / 1_000_000.0;
+    }
+
+    record Summary(int requests, int errors, double throughput,
+                   double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis) {}
+}
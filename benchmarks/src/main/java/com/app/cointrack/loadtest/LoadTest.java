@@ -0,0 +1,166 @@
+package com.app.cointrack.loadtest;
+
+import com.app.cointrack.CointrackApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts the application against {@link FakeCoinGecko} and drives {@code GET /currencies/{currency}} and
+ * {@code POST /currencies/exchange} open loop at a fixed rate. Latency is measured from the intended send time
+ * of each request; only requests scheduled after the warmup are reported. The upstream rate limit is lifted since
+ * the stand-in has no API plan. Application properties can be overridden with
+ * {@code -Dload.app-args="--cointrack.cache.enabled=false ..."}.
+ */
+public final class LoadTest {
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        try (FakeCoinGecko coinGecko = new FakeCoinGecko(config)) {
+            coinGecko.start();
+            try (ConfigurableApplicationContext application = startApplication(config, coinGecko)) {
+                String baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+                Report report = run(config, coinGecko, baseUrl);
+                print(report);
+                Path file = Path.of(System.getProperty("load.report", "target/load-test-result.json"));
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+                System.out.println("Load test report is saved to " + file.toAbsolutePath());
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestConfig config, FakeCoinGecko coinGecko) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--coingecko.api.baseurl=" + coinGecko.baseUrl(),
+                "--cointrack.registry.file=",
+                "--cointrack.upstream.rate-limit=1000000",
+                "--logging.level.root=WARN"));
+        args.addAll(config.appArgs());
+        return SpringApplication.run(CointrackApplication.class, args.toArray(String[]::new));
+    }
+
+    private static Report run(LoadTestConfig config, FakeCoinGecko coinGecko, String baseUrl) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            awaitCoinRegistry(http, baseUrl);
+
+            long interval = TimeUnit.SECONDS.toNanos(1) / config.rps();
+            int warmupRequests = (int) (config.warmup().toNanos() / interval);
+            int measuredRequests = (int) (config.duration().toNanos() / interval);
+            LatencyRecorder currencyLatencies = new LatencyRecorder(measuredRequests);
+            LatencyRecorder exchangeLatencies = new LatencyRecorder(measuredRequests);
+            List<CompletableFuture<?>> inFlight = new ArrayList<>(measuredRequests);
+            Random random = new Random(42);
+            long upstreamCallsBefore = 0;
+            long failedUpstreamCallsBefore = 0;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < warmupRequests + measuredRequests; i++) {
+                long intendedStart = start + i * interval;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = i >= warmupRequests;
+                if (i == warmupRequests) {
+                    upstreamCallsBefore = coinGecko.priceRequests();
+                    failedUpstreamCallsBefore = coinGecko.failedPriceRequests();
+                }
+                boolean exchange = random.nextDouble() < config.exchangeRatio();
+                HttpRequest request = exchange ? exchangeRequest(config, baseUrl, random) : currencyRequest(config, baseUrl, random);
+                LatencyRecorder recorder = exchange ? exchangeLatencies : currencyLatencies;
+                CompletableFuture<?> response = http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((result, error) -> {
+                            if (measured) {
+                                recorder.record(System.nanoTime() - intendedStart, error == null && result.statusCode() == 200);
+                            }
+                        });
+                if (measured) {
+                    inFlight.add(response);
+                }
+            }
+            try {
+                CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                System.out.println("Not all requests completed: " + e);
+            }
+            double seconds = config.duration().toNanos() / 1e9;
+            return new Report(config.rps(), seconds,
+                    coinGecko.priceRequests() - upstreamCallsBefore,
+                    coinGecko.failedPriceRequests() - failedUpstreamCallsBefore,
+                    currencyLatencies.summarize(seconds),
+                    exchangeLatencies.summarize(seconds));
+        }
+    }
+
+    private static void awaitCoinRegistry(HttpClient http, String baseUrl) throws Exception {
+        HttpRequest search = HttpRequest.newBuilder(URI.create(baseUrl + "/currencies/search?query=coin-0")).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            HttpResponse<String> response = http.send(search, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200 && !"[]".equals(response.body())) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Coin registry was not loaded from the fake CoinGecko.");
+    }
+
+    private static HttpRequest currencyRequest(LoadTestConfig config, String baseUrl, Random random) {
+        String uri = baseUrl + "/currencies/" + LoadTestData.coin(random.nextInt(config.hotCurrencies()))
+                + "?filter=" + String.join(",", randomTargets(config, random));
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static HttpRequest exchangeRequest(LoadTestConfig config, String baseUrl, Random random) {
+        String body = "{\"from\":\"" + LoadTestData.coin(random.nextInt(config.hotCurrencies())) + "\",\"to\":[\""
+                + String.join("\",\"", randomTargets(config, random)) + "\"],\"amount\":" + (random.nextInt(100_000) / 100.0 + 1) + "}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/currencies/exchange"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static List<String> randomTargets(LoadTestConfig config, Random random) {
+        List<String> targets = new ArrayList<>(LoadTestData.targets(config.targets()));
+        Collections.shuffle(targets, random);
+        return targets.subList(0, 1 + random.nextInt(Math.min(3, targets.size())));
+    }
+
+    private static void print(Report report) {
+        System.out.printf("Target rate: %d rps for %.0f s, upstream /simple/price calls: %d (%d failed)%n",
+                report.targetRps(), report.durationSeconds(), report.upstreamCalls(), report.failedUpstreamCalls());
+        System.out.printf("%-10s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        print("currency", report.currency());
+        print("exchange", report.exchange());
+    }
+
+    private static void print(String endpoint, LatencyRecorder.Summary summary) {
+        System.out.printf("%-10s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, summary.requests(),
+                summary.errors(), summary.throughput(), summary.p50Millis(), summary.p90Millis(),
+                summary.p99Millis(), summary.p999Millis(), summary.maxMillis());
+    }
+
+    record Report(int targetRps, double durationSeconds, long upstreamCalls, long failedUpstreamCalls,
+                  LatencyRecorder.Summary currency, LatencyRecorder.Summary exchange) {}
+}
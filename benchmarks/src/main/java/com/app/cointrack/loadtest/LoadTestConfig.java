@@ -0,0 +1,38 @@
+package com.app.cointrack.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test settings read from {@code load.*} system properties.
+ */
+record LoadTestConfig(int rps,
+                      Duration warmup,
+                      Duration duration,
+                      double exchangeRatio,
+                      int hotCurrencies,
+                      int coins,
+                      int targets,
+                      Duration latency,
+                      Duration latencyJitter,
+                      double errorRate,
+                      List<String> appArgs) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("load.rps", 200),
+                Duration.parse(System.getProperty("load.warmup", "PT5S")),
+                Duration.parse(System.getProperty("load.duration", "PT30S")),
+                Double.parseDouble(System.getProperty("load.exchange-ratio", "0.3")),
+                Integer.getInteger("load.hot-currencies", 50),
+                Integer.getInteger("load.coins", 2000),
+                Integer.getInteger("load.targets", 10),
+                Duration.parse(System.getProperty("load.latency", "PT0.05S")),
+                Duration.parse(System.getProperty("load.latency-jitter", "PT0.02S")),
+                Double.parseDouble(System.getProperty("load.error-rate", "0.01")),
+                Arrays.stream(System.getProperty("load.app-args", "").split("\\s+"))
+                        .filter(arg -> !arg.isBlank())
+                        .toList());
+    }
+}
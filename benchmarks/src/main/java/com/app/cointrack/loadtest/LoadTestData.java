@@ -0,0 +1,24 @@
+package com.app.cointrack.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class LoadTestData {
+    private LoadTestData() {}
+
+    static String coin(int index) {
+        return "coin-" + index;
+    }
+
+    static List<String> targets(int count) {
+        List<String> targets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            targets.add("t" + i);
+        }
+        return targets;
+    }
+
+    static double rate(String id, String target) {
+        return Math.floorMod(id.hashCode() * 31 + target.hashCode(), 1_000_000) / 100.0 + 0.01;
+    }
+}
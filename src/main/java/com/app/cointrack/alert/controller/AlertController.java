@@ -0,0 +1,33 @@
+package com.app.cointrack.alert.controller;
+
+import com.app.cointrack.alert.dto.AlertDTO;
+import com.app.cointrack.alert.dto.AlertRequestDTO;
+import com.app.cointrack.alert.service.AlertService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/alerts")
+@AllArgsConstructor
+public class AlertController {
+    private final AlertService alertService;
+
+    @PostMapping
+    public ResponseEntity<AlertDTO> createAlert(@Valid @RequestBody AlertRequestDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(alertService.createAlert(dto));
+    }
+
+    @GetMapping("/{id}")
+    public AlertDTO getAlert(@PathVariable long id) {
+        return alertService.getAlert(id);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> removeAlert(@PathVariable long id) {
+        alertService.removeAlert(id);
+        return ResponseEntity.noContent().build();
+    }
+}
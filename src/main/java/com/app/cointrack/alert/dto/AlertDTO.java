@@ -0,0 +1,18 @@
+package com.app.cointrack.alert.dto;
+
+import com.app.cointrack.alert.engine.Direction;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+public class AlertDTO {
+    long id;
+    String currency;
+    String target;
+    double threshold;
+    Direction direction;
+    Instant createdAt;
+}
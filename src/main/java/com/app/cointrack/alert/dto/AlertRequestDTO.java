@@ -0,0 +1,23 @@
+package com.app.cointrack.alert.dto;
+
+import com.app.cointrack.alert.engine.Direction;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRequestDTO {
+    @NotBlank(message = "Currency is mandatory.")
+    String currency;
+    @NotBlank(message = "Target is mandatory.")
+    String target;
+    @Positive(message = "Threshold must be positive.")
+    double threshold;
+    Direction direction;
+}
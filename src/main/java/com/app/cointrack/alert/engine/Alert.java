@@ -0,0 +1,6 @@
+package com.app.cointrack.alert.engine;
+
+/**
+ * Pending alert; {@code createdAt} is in epoch millis.
+ */
+public record Alert(long id, String source, String target, double threshold, Direction direction, long createdAt) {}
@@ -0,0 +1,137 @@
+package com.app.cointrack.alert.engine;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-shot threshold alerts indexed per (source, target) pair. Every pair keeps its {@link Direction#ABOVE} and
+ * {@link Direction#BELOW} alerts in two sets sorted by threshold, so a rate update only visits the alerts it
+ * crosses: {@code O(log n)} per fired alert and nothing for the ones left pending. Fired alerts are removed.
+ * Pairs are locked independently.
+ */
+public class AlertEngine {
+    private static final Comparator<Alert> BY_THRESHOLD =
+            Comparator.comparingDouble(Alert::threshold).thenComparingLong(Alert::id);
+
+    private final ConcurrentMap<String, ConcurrentMap<String, PairAlerts>> pairs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Alert> alerts = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public Alert add(String source, String target, double threshold, Direction direction) {
+        PairAlerts pair = pairs.computeIfAbsent(source, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(target, key -> new PairAlerts(source, target));
+        Alert alert = new Alert(ids.incrementAndGet(), pair.source, pair.target, threshold, direction,
+                System.currentTimeMillis());
+        alerts.put(alert.id(), alert);
+        size.incrementAndGet();
+        synchronized (pair) {
+            pair.of(direction).add(alert);
+        }
+        return alert;
+    }
+
+    public Alert get(long id) {
+        return alerts.get(id);
+    }
+
+    public boolean remove(long id) {
+        Alert alert = alerts.remove(id);
+        if (alert == null) {
+            return false;
+        }
+        PairAlerts pair = pair(alert.source(), alert.target());
+        if (pair != null) {
+            synchronized (pair) {
+                if (pair.of(alert.direction()).remove(alert)) {
+                    size.decrementAndGet();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the last rate seen for the pair, or {@code NaN} when there is none.
+     */
+    public double lastRate(String source, String target) {
+        PairAlerts pair = pair(source, target);
+        return pair == null ? Double.NaN : pair.lastRate;
+    }
+
+    /**
+     * Records a new rate of the pair and returns the alerts it fired, which are removed from the engine.
+     */
+    public List<FiredAlert> onRate(String source, String target, double rate) {
+        PairAlerts pair = pair(source, target);
+        if (pair == null) {
+            return List.of();
+        }
+        List<FiredAlert> fired = new ArrayList<>();
+        Instant now = Instant.now();
+        synchronized (pair) {
+            pair.lastRate = rate;
+            while (!pair.above.isEmpty() && pair.above.first().threshold() <= rate) {
+                fire(pair.above.pollFirst(), rate, now, fired);
+            }
+            while (!pair.below.isEmpty() && pair.below.last().threshold() >= rate) {
+                fire(pair.below.pollLast(), rate, now, fired);
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Returns the pairs that have pending alerts, keyed by source.
+     */
+    public Map<String, Set<String>> getWatchedPairs() {
+        Map<String, Set<String>> watched = new HashMap<>();
+        pairs.forEach((source, targets) -> targets.forEach((target, pair) -> {
+            synchronized (pair) {
+                if (!pair.above.isEmpty() || !pair.below.isEmpty()) {
+                    watched.computeIfAbsent(source, key -> new HashSet<>()).add(target);
+                }
+            }
+        }));
+        return watched;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void fire(Alert alert, double rate, Instant now, List<FiredAlert> fired) {
+        alerts.remove(alert.id());
+        size.decrementAndGet();
+        fired.add(new FiredAlert(alert, rate, now));
+    }
+
+    private PairAlerts pair(String source, String target) {
+        Map<String, PairAlerts> targets = pairs.get(source);
+        return targets == null ? null : targets.get(target);
+    }
+
+    /**
+     * Alerts of one pair; alerts share the pair's source and target strings.
+     */
+    private static final class PairAlerts {
+        private final String source;
+        private final String target;
+        private final NavigableSet<Alert> above = new TreeSet<>(BY_THRESHOLD);
+        private final NavigableSet<Alert> below = new TreeSet<>(BY_THRESHOLD);
+        private volatile double lastRate = Double.NaN;
+
+        private PairAlerts(String source, String target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        private NavigableSet<Alert> of(Direction direction) {
+            return direction == Direction.ABOVE ? above : below;
+        }
+    }
+}
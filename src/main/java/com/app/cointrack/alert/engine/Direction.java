@@ -0,0 +1,12 @@
+package com.app.cointrack.alert.engine;
+
+public enum Direction {
+    /**
+     * Fires once the rate rises to or above the threshold.
+     */
+    ABOVE,
+    /**
+     * Fires once the rate falls to or below the threshold.
+     */
+    BELOW
+}
@@ -0,0 +1,5 @@
+package com.app.cointrack.alert.engine;
+
+import java.time.Instant;
+
+public record FiredAlert(Alert alert, double rate, Instant firedAt) {}
@@ -0,0 +1,10 @@
+package com.app.cointrack.alert.service;
+
+import com.app.cointrack.alert.dto.AlertDTO;
+import com.app.cointrack.alert.dto.AlertRequestDTO;
+
+public interface AlertService {
+    AlertDTO createAlert(AlertRequestDTO alert);
+    AlertDTO getAlert(long id);
+    void removeAlert(long id);
+}
@@ -0,0 +1,180 @@
+package com.app.cointrack.alert.service.impl;
+
+import com.app.cointrack.alert.dto.AlertDTO;
+import com.app.cointrack.alert.dto.AlertRequestDTO;
+import com.app.cointrack.alert.engine.Alert;
+import com.app.cointrack.alert.engine.AlertEngine;
+import com.app.cointrack.alert.engine.Direction;
+import com.app.cointrack.alert.engine.FiredAlert;
+import com.app.cointrack.alert.service.AlertService;
+import com.app.cointrack.alert.sink.AlertSink;
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.rate.RatesFetchedEvent;
+import com.app.cointrack.currency.resolver.CurrencyResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Evaluates price alerts against every fetched rate. Rates of watched pairs are also fetched once per
+ * {@code refreshInterval}, so alerts fire even when nobody else asks for their pairs. Fired alerts are handed to
+ * the {@link AlertSink} on virtual threads. Alerts are kept in memory only.
+ */
+@Slf4j
+@Service
+public class AlertServiceImpl implements AlertService {
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("alert-refresh").daemon().factory());
+    private final ExecutorService deliveryExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("alert-delivery-", 0).factory());
+    private final AlertEngine engine = new AlertEngine();
+    private final CurrencyProvider dataProvider;
+    private final CurrencyResolver currencyResolver;
+    private final AlertSink alertSink;
+    private final MeterRegistry meterRegistry;
+    private final Duration refreshInterval;
+    private final int maxAlerts;
+    private Counter firedAlerts;
+
+    public AlertServiceImpl(CurrencyProvider dataProvider, CurrencyResolver currencyResolver, AlertSink alertSink,
+                            MeterRegistry meterRegistry,
+                            @Value("${cointrack.alert.refresh-interval}") Duration refreshInterval,
+                            @Value("${cointrack.alert.max-alerts}") int maxAlerts) {
+        this.dataProvider = dataProvider;
+        this.currencyResolver = currencyResolver;
+        this.alertSink = alertSink;
+        this.meterRegistry = meterRegistry;
+        this.refreshInterval = refreshInterval;
+        this.maxAlerts = maxAlerts;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("cointrack.alert.alerts", engine, AlertEngine::size)
+                .description("Pending price alerts")
+                .register(meterRegistry);
+        firedAlerts = Counter.builder("cointrack.alert.fired")
+                .description("Price alerts fired")
+                .register(meterRegistry);
+        scheduler.scheduleAtFixedRate(this::refreshAll, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        deliveryExecutor.shutdown();
+    }
+
+    @EventListener
+    public void onRatesFetched(RatesFetchedEvent event) {
+        event.rates().forEach(this::evaluate);
+    }
+
+    /**
+     * Without a direction the alert fires when the rate crosses the threshold from its last known side.
+     */
+    @Override
+    public AlertDTO createAlert(AlertRequestDTO request) {
+        if (engine.size() >= maxAlerts) {
+            throw new RequestValidationException("Too many alerts, try again later.");
+        }
+        String source = currencyResolver.resolve(request.getCurrency());
+        String target = request.getTarget().trim().toLowerCase(Locale.ROOT);
+        Direction direction = request.getDirection();
+        if (direction == null) {
+            double lastRate = engine.lastRate(source, target);
+            if (Double.isNaN(lastRate)) {
+                lastRate = currentRate(source, target);
+            }
+            direction = lastRate < request.getThreshold() ? Direction.ABOVE : Direction.BELOW;
+        }
+        return toDTO(engine.add(source, target, request.getThreshold(), direction));
+    }
+
+    @Override
+    public AlertDTO getAlert(long id) {
+        Alert alert = engine.get(id);
+        if (alert == null) {
+            throw new RequestValidationException("Alert " + id + " does not exist.");
+        }
+        return toDTO(alert);
+    }
+
+    @Override
+    public void removeAlert(long id) {
+        if (!engine.remove(id)) {
+            throw new RequestValidationException("Alert " + id + " does not exist.");
+        }
+    }
+
+    private double currentRate(String source, String target) {
+        double rate = dataProvider.getCurrency(source, Set.of(target)).rate(target);
+        if (Double.isNaN(rate)) {
+            throw new RequestValidationException("There is no rate of " + source + " in " + target + ".");
+        }
+        return rate;
+    }
+
+    private void evaluate(CurrencyRates rates) {
+        for (int i = 0; i < rates.size(); i++) {
+            List<FiredAlert> fired = engine.onRate(rates.getSource(), rates.targetAt(i), rates.rateAt(i));
+            for (FiredAlert alert : fired) {
+                firedAlerts.increment();
+                deliveryExecutor.execute(() -> deliver(alert));
+            }
+        }
+    }
+
+    private void deliver(FiredAlert alert) {
+        try {
+            alertSink.deliver(alert);
+        } catch (RuntimeException e) {
+            log.error("Cannot deliver alert {}.", alert.alert().id(), e);
+        }
+    }
+
+    private void refreshAll() {
+        engine.getWatchedPairs().forEach((source, targets) -> {
+            CompletableFuture<CurrencyRates> rates;
+            try {
+                rates = dataProvider.getCurrencyAsync(source, targets);
+            } catch (RuntimeException e) {
+                rates = CompletableFuture.failedFuture(e);
+            }
+            rates.whenComplete((result, error) -> {
+                if (error != null) {
+                    log.debug("Refresh of {} rates for alerts failed.", source, error);
+                    return;
+                }
+                evaluate(result);
+            });
+        });
+    }
+
+    private static AlertDTO toDTO(Alert alert) {
+        return AlertDTO.builder()
+                .id(alert.id())
+                .currency(alert.source())
+                .target(alert.target())
+                .threshold(alert.threshold())
+                .direction(alert.direction())
+                .createdAt(Instant.ofEpochMilli(alert.createdAt()))
+                .build();
+    }
+}
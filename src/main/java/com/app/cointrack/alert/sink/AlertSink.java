@@ -0,0 +1,11 @@
+package com.app.cointrack.alert.sink;
+
+import com.app.cointrack.alert.engine.FiredAlert;
+
+/**
+ * Delivers fired alerts. Implementations are called from virtual threads and may block.
+ */
+@FunctionalInterface
+public interface AlertSink {
+    void deliver(FiredAlert alert);
+}
@@ -0,0 +1,15 @@
+package com.app.cointrack.alert.sink;
+
+import com.app.cointrack.alert.engine.FiredAlert;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LoggingAlertSink implements AlertSink {
+    @Override
+    public void deliver(FiredAlert fired) {
+        log.info("Alert {} fired: {}/{} is {} {} at {}.", fired.alert().id(), fired.alert().source(),
+                fired.alert().target(), fired.alert().direction(), fired.alert().threshold(), fired.rate());
+    }
+}
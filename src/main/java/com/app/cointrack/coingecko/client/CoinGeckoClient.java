@@ -1,116 +1,294 @@
 package com.app.cointrack.coingecko.client;
 
-import com.app.cointrack.coingecko.dto.CoinGeckoCurrencyDTO;
+import com.app.cointrack.coingecko.guard.UpstreamUnavailableException;
+import com.app.cointrack.coingecko.registry.CoinRegistry;
+import com.app.cointrack.coingecko.registry.CoinSet;
+import com.app.cointrack.coingecko.registry.SharedCoinListCache;
 import com.app.cointrack.common.exception.ExternalApiCommunicationException;
 import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CrossRateSource;
 import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.rate.RatesFetchedEvent;
 
 import java.io.IOException;
-import java.util.Map.Entry;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-public class CoinGeckoClient implements CurrencyProvider {
-    private static final Map<String, String> supportedCurrenciesIdToSymbol = new HashMap<>();
+public class CoinGeckoClient implements CurrencyProvider, CrossRateSource {
+    private static final int MARKETS_PAGE_SIZE = 250;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final OkHttpClient client;
+    private final CoinRegistry coinRegistry;
+    private final CoinGeckoMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SharedCoinListCache sharedCoinList;
 
     @Value("${coingecko.api.key}")
     private String apiKey;
     @Value("${coingecko.api.baseurl}")
     private String baseurl;
+    @Value("${cointrack.registry.ranked-coins}")
+    private int rankedCoins;
 
-    public CoinGeckoClient(OkHttpClient client) {
+    public CoinGeckoClient(OkHttpClient client, CoinRegistry coinRegistry, MeterRegistry meterRegistry,
+                           ApplicationEventPublisher eventPublisher, SharedCoinListCache sharedCoinList) {
         this.client = client;
+        this.coinRegistry = coinRegistry;
+        this.metrics = new CoinGeckoMetrics(meterRegistry);
+        this.eventPublisher = eventPublisher;
+        this.sharedCoinList = sharedCoinList;
     }
 
     @PostConstruct
     public void initSupportedCurrencies() {
-        if (supportedCurrenciesIdToSymbol.isEmpty()) {
-            try {
-                List<CoinGeckoCurrencyDTO> currencies = getSupportedCurrencies();
-                currencies.forEach(currency -> supportedCurrenciesIdToSymbol.put(currency.getId(), currency.getSymbol()));
-            } catch (IOException e) {
-                log.error("Cannot initialize CoinGecko supported currencies.", e);
-            }
+        coinRegistry.start(sharedCoinList.share(this::loadSupportedCurrencies));
+    }
+
+    @Override
+    public CurrencyRates getCurrency(String currency, Set<String> filters) {
+        String currencyId = getCurrencyId(coinRegistry.getCoins(), currency);
+        String url = buildGetCurrencyUrl(baseurl, List.of(currencyId), chooseFilters(filters));
+        return firstCurrency(fetchCurrencyData(url, 1), currencyId);
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        CompletableFuture<CoinSet> coins = coinRegistry.getCoinsAsync();
+        if (coins.isDone()) {
+            return fetchCurrencyAsync(coins.join(), currency, filters);
         }
+        return coins.thenCompose(loaded -> fetchCurrencyAsync(loaded, currency, filters));
     }
 
+    /**
+     * Looks the currencies up in the current coin index without waiting for the first coin list; until it is
+     * loaded the call fails as the upstream being unavailable.
+     */
     @Override
-    public Entry<String, Map<String, Double>> getCurrency(String currency, Set<String> filters) {
-        String currencyId = getCurrencyId(currency);
-        Set<String> chosenFilters =
-                filters == null || filters.isEmpty() ? Set.of() : filters;
-        String url = buildGetCurrencyUrl(currencyId, chosenFilters);
-        return fetchCurrencyData(url);
+    public Map<String, CurrencyRates> getCurrencies(Set<String> currencies, Set<String> filters) {
+        CoinSet coins = coinRegistry.getIndex().getCoins();
+        if (coins.isEmpty() && !coinRegistry.isLoaded()) {
+            throw new ExternalApiCommunicationException("Supported currencies are not available yet.");
+        }
+        List<String> currencyIds = currencies.stream()
+                .filter(coins::contains)
+                .toList();
+        if (currencyIds.isEmpty()) {
+            return Map.of();
+        }
+        String url = buildGetCurrencyUrl(baseurl, currencyIds, chooseFilters(filters));
+        return fetchCurrencyData(url, currencyIds.size());
+    }
+
+    private CompletableFuture<CurrencyRates> fetchCurrencyAsync(CoinSet coins, String currency, Set<String> filters) {
+        String currencyId;
+        try {
+            currencyId = getCurrencyId(coins, currency);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String url = buildGetCurrencyUrl(baseurl, List.of(currencyId), chooseFilters(filters));
+        CompletableFuture<CurrencyRates> result = new CompletableFuture<>();
+        Call call = client.newCall(buildGetRequest(url));
+        Timer.Sample sample = metrics.start();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                metrics.recordRequestFailure(sample, CoinGeckoMetrics.SIMPLE_PRICE);
+                logCommunicationProblem(e);
+                result.completeExceptionally(new ExternalApiCommunicationException("Problem during communication with CoinGecko API."));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                metrics.recordRequest(sample, CoinGeckoMetrics.SIMPLE_PRICE, response.code());
+                try (response) {
+                    result.complete(firstCurrency(readCurrencyData(response, 1), currencyId));
+                } catch (Exception e) {
+                    log.error("Problem during communication with CoinGecko API.", e);
+                    result.completeExceptionally(new ExternalApiCommunicationException("Problem during communication with CoinGecko API."));
+                }
+            }
+        });
+        result.whenComplete((rates, e) -> {
+            if (e instanceof CancellationException) {
+                call.cancel();
+            }
+        });
+        return result;
     }
 
-    private Entry<String, Map<String, Double>> fetchCurrencyData(String url) {
-        try (Response response = executeGetCall(url)) {
+    @Override
+    public CurrencyRates getReferenceRates() {
+        try (Response response = executeGetCall(CoinGeckoMetrics.EXCHANGE_RATES, baseurl + "/exchange_rates")) {
             if (!response.isSuccessful() || response.body() == null) {
                 log.error("Unsuccessful request to CoinGecko API. Status: {}.", response.code());
                 throw new ExternalApiCommunicationException("Problem during communication with CoinGecko API.");
             }
-            return objectMapper.readValue(response.body().string(),
-                    new TypeReference<Entry<String, Map<String, Double>>>() {});
+            try (JsonParser parser = objectMapper.getFactory().createParser(response.body().byteStream())) {
+                return metrics.recordParsing(CoinGeckoMetrics.EXCHANGE_RATES, () -> ExchangeRatesParser.parse(parser));
+            }
+        } catch (IOException e) {
+            logCommunicationProblem(e);
+            throw new ExternalApiCommunicationException("Problem during communication with CoinGecko API.");
+        }
+    }
+
+    private Map<String, CurrencyRates> fetchCurrencyData(String url, int expectedCurrencies) {
+        try (Response response = executeGetCall(CoinGeckoMetrics.SIMPLE_PRICE, url)) {
+            return readCurrencyData(response, expectedCurrencies);
         } catch (Exception e) {
+            logCommunicationProblem(e);
+            throw new ExternalApiCommunicationException("Problem during communication with CoinGecko API.");
+        }
+    }
+
+    private Map<String, CurrencyRates> readCurrencyData(Response response, int expectedCurrencies) throws IOException {
+        if (!response.isSuccessful() || response.body() == null) {
+            log.error("Unsuccessful request to CoinGecko API. Status: {}.", response.code());
+            throw new ExternalApiCommunicationException("Problem during communication with CoinGecko API.");
+        }
+        Map<String, CurrencyRates> rates;
+        try (JsonParser parser = objectMapper.getFactory().createParser(response.body().byteStream())) {
+            rates = metrics.recordParsing(CoinGeckoMetrics.SIMPLE_PRICE, () -> SimplePriceParser.parse(parser, expectedCurrencies));
+        }
+        if (!rates.isEmpty()) {
+            eventPublisher.publishEvent(new RatesFetchedEvent(rates.values(), Instant.now()));
+        }
+        return rates;
+    }
+
+    private static void logCommunicationProblem(Exception e) {
+        if (e instanceof UpstreamUnavailableException) {
+            log.warn("Call to CoinGecko API was not sent: {}", e.getMessage());
+        } else {
             log.error("Problem during communication with CoinGecko API.", e);
+        }
+    }
+
+    private static CurrencyRates firstCurrency(Map<String, CurrencyRates> rates, String currencyId) {
+        if (rates.isEmpty()) {
+            log.error("Empty response from CoinGecko API for {}.", currencyId);
             throw new ExternalApiCommunicationException("Problem during communication with CoinGecko API.");
         }
+        return rates.values().iterator().next();
     }
 
-    private String getCurrencyId(String currency) {
-        initSupportedCurrencies();
-        if(supportedCurrenciesIdToSymbol.containsKey(currency)) {
+    private static Set<String> chooseFilters(Set<String> filters) {
+        return filters == null || filters.isEmpty() ? Set.of() : filters;
+    }
+
+    private String getCurrencyId(CoinSet coins, String currency) {
+        Timer.Sample sample = metrics.start();
+        if(coins.contains(currency)) {
+            metrics.recordResolution(sample, "SUPPORTED");
             return currency;
         }
+        if (!coinRegistry.isLoaded()) {
+            metrics.recordResolution(sample, "UNAVAILABLE");
+            throw new ExternalApiCommunicationException("Supported currencies are not available yet.");
+        }
+        metrics.recordResolution(sample, "UNSUPPORTED");
         throw new RequestValidationException("Given Currency is not supported.");
     }
 
-    private List<CoinGeckoCurrencyDTO> getSupportedCurrencies() throws IOException {
-        try (Response response = executeGetCall(baseurl + "/coins/list")) {
+    private CoinSet loadSupportedCurrencies() throws IOException {
+        Map<String, Integer> ranks = loadMarketCapRanks();
+        try (Response response = executeGetCall(CoinGeckoMetrics.COINS_LIST, baseurl + "/coins/list")) {
             if (response.code() == HttpStatus.OK.value() && response.body() != null) {
-                return objectMapper.readValue(response.body().string(), objectMapper.getTypeFactory().constructCollectionType(List.class, CoinGeckoCurrencyDTO.class));
+                CoinSet.Builder coins = CoinSet.builder();
+                try (JsonParser parser = objectMapper.getFactory().createParser(response.body().byteStream())) {
+                    metrics.recordParsing(CoinGeckoMetrics.COINS_LIST, () -> CoinListParser.parse(parser, (id, symbol, name) ->
+                            coins.add(id, symbol, name, ranks.getOrDefault(id, CoinSet.UNRANKED))));
+                }
+                return coins.build();
             }
+            throw new IOException("Unsuccessful request to CoinGecko API. Status: " + response.code() + ".");
         }
-        return List.of();
     }
 
-    private Response executeGetCall(String url) throws IOException {
-        Request request = new Request.Builder()
+    private Map<String, Integer> loadMarketCapRanks() {
+        Map<String, Integer> ranks = new HashMap<>();
+        int pages = (rankedCoins + MARKETS_PAGE_SIZE - 1) / MARKETS_PAGE_SIZE;
+        for (int page = 1; page <= pages; page++) {
+            String url = baseurl + "/coins/markets?vs_currency=usd&order=market_cap_desc&per_page="
+                    + Math.min(rankedCoins, MARKETS_PAGE_SIZE) + "&page=" + page;
+            try (Response response = executeGetCall(CoinGeckoMetrics.COINS_MARKETS, url)) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    log.warn("Cannot load market cap ranks from CoinGecko API. Status: {}.", response.code());
+                    break;
+                }
+                try (JsonParser parser = objectMapper.getFactory().createParser(response.body().byteStream())) {
+                    if (metrics.recordParsing(CoinGeckoMetrics.COINS_MARKETS, () -> CoinMarketsParser.parse(parser, ranks)) < MARKETS_PAGE_SIZE) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Cannot load market cap ranks from CoinGecko API.", e);
+                break;
+            }
+        }
+        return ranks;
+    }
+
+    private Response executeGetCall(String endpoint, String url) throws IOException {
+        Timer.Sample sample = metrics.start();
+        try {
+            Response response = client.newCall(buildGetRequest(url)).execute();
+            metrics.recordRequest(sample, endpoint, response.code());
+            return response;
+        } catch (IOException e) {
+            metrics.recordRequestFailure(sample, endpoint);
+            throw e;
+        }
+    }
+
+    private Request buildGetRequest(String url) {
+        return new Request.Builder()
                 .url(url)
                 .get()
                 .addHeader("accept", "application/json")
                 .addHeader("x-cg-demo-api-key", apiKey)
                 .build();
-        return client.newCall(request).execute();
     }
 
-    private String buildGetCurrencyUrl(String currencyId, Set<String> filters) {
+    static String buildGetCurrencyUrl(String baseurl, Collection<String> currencyIds, Set<String> filters) {
         StringBuilder url = new StringBuilder(baseurl)
-                .append("/simple/price?ids=")
-                .append(currencyId)
-                .append("&vs_currencies=");
-        Iterator<String> iterator = filters.iterator();
+                .append("/simple/price?ids=");
+        appendJoined(url, currencyIds);
+        url.append("&vs_currencies=");
+        appendJoined(url, filters);
+        return url.toString();
+    }
+
+    private static void appendJoined(StringBuilder url, Collection<String> values) {
+        Iterator<String> iterator = values.iterator();
         while (iterator.hasNext()) {
-            String filter = iterator.next();
-            url.append(filter);
+            url.append(iterator.next());
             if(iterator.hasNext()) {
                 url.append(",");
             }
         }
-        return url.toString();
     }
 }
@@ -0,0 +1,71 @@
+package com.app.cointrack.coingecko.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+
+import java.io.IOException;
+
+/**
+ * Timers of the CoinGecko client: upstream calls until response headers, payload parsing and currency id
+ * resolution. All of them publish percentile histograms.
+ */
+final class CoinGeckoMetrics {
+    static final String SIMPLE_PRICE = "simple_price";
+    static final String COINS_LIST = "coins_list";
+    static final String COINS_MARKETS = "coins_markets";
+    static final String EXCHANGE_RATES = "exchange_rates";
+
+    private final MeterRegistry registry;
+
+    CoinGeckoMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    void recordRequest(Timer.Sample sample, String endpoint, int status) {
+        sample.stop(timer("cointrack.coingecko.requests", "Calls to the CoinGecko API",
+                endpoint, Outcome.forStatus(status).name()));
+    }
+
+    void recordRequestFailure(Timer.Sample sample, String endpoint) {
+        sample.stop(timer("cointrack.coingecko.requests", "Calls to the CoinGecko API", endpoint, "IO_ERROR"));
+    }
+
+    <T> T recordParsing(String endpoint, Parsing<T> parsing) throws IOException {
+        Timer.Sample sample = start();
+        String outcome = "ERROR";
+        try {
+            T result = parsing.parse();
+            outcome = "SUCCESS";
+            return result;
+        } finally {
+            sample.stop(timer("cointrack.coingecko.parsing", "Parsing of CoinGecko API payloads", endpoint, outcome));
+        }
+    }
+
+    void recordResolution(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("cointrack.currency.resolution")
+                .description("Resolution of requested currencies to supported CoinGecko ids")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Timer timer(String name, String description, String endpoint, String outcome) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    interface Parsing<T> {
+        T parse() throws IOException;
+    }
+}
@@ -0,0 +1,49 @@
+package com.app.cointrack.coingecko.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@code /coins/list} payload ({@code [{"id": ..., "symbol": ..., "name": ...}, ...]}) token by token
+ * and hands the id, symbol and name of every coin to the consumer, skipping any other fields.
+ */
+final class CoinListParser {
+    private CoinListParser() {}
+
+    static int parse(JsonParser parser, CoinConsumer coinConsumer) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Unexpected CoinGecko coins list payload.");
+        }
+        int count = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String id = null;
+            String symbol = null;
+            String name = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_STRING && "id".equals(field)) {
+                    id = parser.getText();
+                } else if (value == JsonToken.VALUE_STRING && "symbol".equals(field)) {
+                    symbol = parser.getText();
+                } else if (value == JsonToken.VALUE_STRING && "name".equals(field)) {
+                    name = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (id != null) {
+                coinConsumer.accept(id, symbol, name);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    interface CoinConsumer {
+        void accept(String id, String symbol, String name);
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.cointrack.coingecko.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads a {@code /coins/markets} payload token by token and collects only the market cap rank of every coin.
+ */
+final class CoinMarketsParser {
+    private CoinMarketsParser() {}
+
+    static int parse(JsonParser parser, Map<String, Integer> ranks) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Unexpected CoinGecko coins markets payload.");
+        }
+        int count = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String id = null;
+            int rank = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_STRING && "id".equals(field)) {
+                    id = parser.getText();
+                } else if (value == JsonToken.VALUE_NUMBER_INT && "market_cap_rank".equals(field)) {
+                    rank = parser.getIntValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (id != null && rank > 0) {
+                ranks.merge(id, rank, Math::min);
+            }
+            count++;
+        }
+        return count;
+    }
+}
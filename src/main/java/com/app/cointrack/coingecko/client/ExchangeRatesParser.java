@@ -0,0 +1,48 @@
+package com.app.cointrack.coingecko.client;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Reads an {@code /exchange_rates} payload token by token into the rates of one bitcoin in every listed currency,
+ * keeping only the {@code value} of each entry.
+ */
+final class ExchangeRatesParser {
+    static final String REFERENCE_CURRENCY = "bitcoin";
+
+    private ExchangeRatesParser() {}
+
+    static CurrencyRates parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Unexpected CoinGecko exchange rates payload.");
+        }
+        CurrencyRates.Builder rates = CurrencyRates.builder(REFERENCE_CURRENCY, 64);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT || !"rates".equals(field)) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String target = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String rateField = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("value".equals(rateField) && value.isNumeric()) {
+                        rates.add(target, parser.getDoubleValue());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return rates.build();
+    }
+}
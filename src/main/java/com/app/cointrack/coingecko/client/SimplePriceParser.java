@@ -0,0 +1,43 @@
+package com.app.cointrack.coingecko.client;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a {@code /simple/price} payload ({@code {"<id>": {"<vs>": <rate>, ...}, ...}}) token by token straight
+ * into {@link CurrencyRates}, without boxing rates or building intermediate maps.
+ */
+final class SimplePriceParser {
+    private SimplePriceParser() {}
+
+    static Map<String, CurrencyRates> parse(JsonParser parser, int expectedCurrencies) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Unexpected CoinGecko price payload.");
+        }
+        Map<String, CurrencyRates> result = new LinkedHashMap<>(expectedCurrencies * 2);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String currency = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            CurrencyRates.Builder rates = CurrencyRates.builder(currency, 8);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String target = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NUMBER_FLOAT || value == JsonToken.VALUE_NUMBER_INT) {
+                    rates.add(target, parser.getDoubleValue());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            result.put(currency, rates.build());
+        }
+        return result;
+    }
+}
@@ -1,10 +0,0 @@
-package com.app.cointrack.coingecko.dto;
-
-import lombok.Data;
-
-@Data
-public class CoinGeckoCurrencyDTO {
-    private String id;
-    private String symbol;
-    private String name;
-}
@@ -0,0 +1,127 @@
+package com.app.cointrack.coingecko.guard;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker over the outcomes of the last {@code windowSize} calls. Once at least
+ * {@code minimumCalls} were recorded and the failure rate reaches {@code failureRateThreshold} percent, calls are
+ * rejected for {@code openDuration} (or longer when upstream asked to retry later). Afterwards a single probe call
+ * is let through; its success closes the breaker, its failure opens it again.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] failures;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoTime;
+    private State state = State.CLOSED;
+    private int calls;
+    private int failed;
+    private int next;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration openDuration) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, System::nanoTime);
+    }
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration openDuration,
+                          LongSupplier nanoTime) {
+        if (windowSize <= 0 || failureRateThreshold <= 0 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("Circuit breaker needs a positive window and a threshold in (0, 100].");
+        }
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoTime.getAsLong() - openUntil < 0) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * Records a failed call; {@code retryAfterNanos} greater than zero opens the breaker for at least that long.
+     */
+    public synchronized void onFailure(long retryAfterNanos) {
+        if (state == State.HALF_OPEN || retryAfterNanos > 0) {
+            open(Math.max(openDurationNanos, retryAfterNanos));
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= minimumCalls && failed * 100 >= failureRateThreshold * calls) {
+                open(openDurationNanos);
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit whose call was not made or was cancelled, without recording an outcome.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == failures.length) {
+            failed -= failures[next] ? 1 : 0;
+        } else {
+            calls++;
+        }
+        failures[next] = failure;
+        failed += failure ? 1 : 0;
+        next = (next + 1) % failures.length;
+    }
+
+    private void open(long durationNanos) {
+        state = State.OPEN;
+        openUntil = nanoTime.getAsLong() + durationNanos;
+        probeInFlight = false;
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        probeInFlight = false;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        calls = 0;
+        failed = 0;
+        next = 0;
+    }
+}
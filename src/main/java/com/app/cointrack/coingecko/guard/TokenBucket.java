@@ -0,0 +1,57 @@
+package com.app.cointrack.coingecko.guard;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket holding up to {@code capacity} permits, refilled continuously at {@code permits} per
+ * {@code period}. Callers reserve a permit up front and are told how long to wait for it, so the lock is never
+ * held while waiting.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double permitsPerNano;
+    private final LongSupplier nanoTime;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(int permits, Duration period, int capacity) {
+        this(permits, period, capacity, System::nanoTime);
+    }
+
+    public TokenBucket(int permits, Duration period, int capacity, LongSupplier nanoTime) {
+        if (permits <= 0 || capacity <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Token bucket needs positive permits, period and capacity.");
+        }
+        this.capacity = capacity;
+        this.permitsPerNano = (double) permits / period.toNanos();
+        this.nanoTime = nanoTime;
+        this.tokens = capacity;
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    /**
+     * Reserves a permit and returns the nanos to wait before using it, or {@code -1} without reserving anything
+     * when the wait would exceed {@code maxWaitNanos}.
+     */
+    public synchronized long reserve(long maxWaitNanos) {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        double remaining = tokens - 1;
+        long wait = remaining >= 0 ? 0 : (long) Math.ceil(-remaining / permitsPerNano);
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        tokens = remaining;
+        return wait;
+    }
+
+    /**
+     * Returns a permit reserved by {@link #reserve(long)} that was never used, e.g. because the call was rejected
+     * later.
+     */
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
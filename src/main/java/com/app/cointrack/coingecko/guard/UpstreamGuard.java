@@ -0,0 +1,125 @@
+package com.app.cointrack.coingecko.guard;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OkHttp interceptor protecting the upstream API and our own threads during upstream incidents. A call first
+ * passes the circuit breaker, then waits for a rate limit permit and a concurrency slot, in total at most
+ * {@code maxWait}; calls that cannot get through are rejected with {@link UpstreamUnavailableException} without
+ * being sent, and a rate limit permit taken by a call rejected on concurrency is returned to the bucket.
+ * Timeouts, {@code 429} and {@code 5xx} responses count as failures of the breaker and shrink the concurrency
+ * limit; {@code Retry-After} of a {@code 429} keeps the breaker open for as long as requested.
+ */
+@Slf4j
+public class UpstreamGuard implements Interceptor {
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final TokenBucket rateLimit;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final CircuitBreaker circuitBreaker;
+    private final long maxWaitNanos;
+    private final LongAdder circuitOpenRejections = new LongAdder();
+    private final LongAdder rateLimitRejections = new LongAdder();
+    private final LongAdder concurrencyLimitRejections = new LongAdder();
+
+    public UpstreamGuard(TokenBucket rateLimit, AdaptiveConcurrencyLimit concurrencyLimit,
+                         CircuitBreaker circuitBreaker, Duration maxWait) {
+        this.rateLimit = rateLimit;
+        this.concurrencyLimit = concurrencyLimit;
+        this.circuitBreaker = circuitBreaker;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!circuitBreaker.tryAcquire()) {
+            circuitOpenRejections.increment();
+            throw new UpstreamUnavailableException("CoinGecko API is unavailable, circuit breaker is open.");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            acquirePermits(waitStart);
+        } catch (IOException e) {
+            circuitBreaker.release();
+            throw e;
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                concurrencyLimit.cancel();
+                circuitBreaker.release();
+            } else {
+                concurrencyLimit.release(System.nanoTime() - start, true);
+                circuitBreaker.onFailure(0);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            concurrencyLimit.cancel();
+            circuitBreaker.release();
+            throw e;
+        }
+        boolean overloaded = response.code() == TOO_MANY_REQUESTS || response.code() >= 500;
+        concurrencyLimit.release(System.nanoTime() - start, overloaded);
+        if (overloaded) {
+            circuitBreaker.onFailure(retryAfterNanos(response));
+        } else {
+            circuitBreaker.onSuccess();
+        }
+        return response;
+    }
+
+    public GuardStats getStats() {
+        return new GuardStats(circuitBreaker.getState(), concurrencyLimit.getLimit(), concurrencyLimit.getInFlight(),
+                circuitOpenRejections.sum(), rateLimitRejections.sum(), concurrencyLimitRejections.sum());
+    }
+
+    private void acquirePermits(long waitStart) throws IOException {
+        long wait = rateLimit.reserve(maxWaitNanos);
+        if (wait < 0) {
+            rateLimitRejections.increment();
+            throw new UpstreamUnavailableException("CoinGecko API rate limit is exhausted.");
+        }
+        try {
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            if (!concurrencyLimit.acquire(maxWaitNanos - (System.nanoTime() - waitStart))) {
+                rateLimit.refund();
+                concurrencyLimitRejections.increment();
+                throw new UpstreamUnavailableException("CoinGecko API concurrency limit is reached.");
+            }
+        } catch (InterruptedException e) {
+            rateLimit.refund();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for CoinGecko API permits.");
+        }
+    }
+
+    private static long retryAfterNanos(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (response.code() != TOO_MANY_REQUESTS || retryAfter == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring Retry-After header in unsupported format: {}.", retryAfter);
+            return 0;
+        }
+    }
+
+    public record GuardStats(CircuitBreaker.State circuitState, int concurrencyLimit, int inFlight,
+                             long circuitOpenRejections, long rateLimitRejections, long concurrencyLimitRejections) {}
+}
@@ -0,0 +1,12 @@
+package com.app.cointrack.coingecko.guard;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link UpstreamGuard} for calls it rejects without sending them upstream.
+ */
+public class UpstreamUnavailableException extends IOException {
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.cointrack.coingecko.registry;
+
+import com.app.cointrack.currency.resolver.CurrencyMatch;
+import com.app.cointrack.currency.resolver.CurrencyResolver;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@AllArgsConstructor
+public class CoinGeckoCurrencyResolver implements CurrencyResolver {
+    private final CoinRegistry coinRegistry;
+
+    /**
+     * Resolves against the current coin set; until the first set is loaded, waits for it up to the registry's
+     * initial load timeout instead of passing symbols and names on unresolved.
+     */
+    @Override
+    public String resolve(String currency) {
+        if (!coinRegistry.isLoaded()) {
+            coinRegistry.getCoins();
+        }
+        return resolve(coinRegistry.getIndex(), currency);
+    }
+
+    @Override
+    public CompletableFuture<String> resolveAsync(String currency) {
+        if (coinRegistry.isLoaded()) {
+            return CompletableFuture.completedFuture(resolve(coinRegistry.getIndex(), currency));
+        }
+        return coinRegistry.getCoinsAsync().thenApply(coins -> resolve(coinRegistry.getIndex(), currency));
+    }
+
+    @Override
+    public List<CurrencyMatch> search(String query, int limit) {
+        return coinRegistry.getIndex().search(query, limit);
+    }
+
+    private static String resolve(CoinIndex index, String currency) {
+        String id = index.resolve(currency);
+        return id == null ? currency : id;
+    }
+}
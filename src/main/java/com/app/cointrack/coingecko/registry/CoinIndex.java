@@ -0,0 +1,124 @@
+package com.app.cointrack.coingecko.registry;
+
+import com.app.cointrack.currency.resolver.CurrencyMatch;
+
+import java.util.*;
+
+/**
+ * Case-insensitive lookup index over ids, symbols and names of a {@link CoinSet}, built once per coin set.
+ * Exact lookups go through a hash map where an id always wins over a symbol and a symbol over a name; coins
+ * sharing a symbol or name are ranked by market cap. Prefix searches binary search a sorted array of all keys.
+ */
+public final class CoinIndex {
+    private static final CoinIndex EMPTY = new CoinIndex(CoinSet.empty(), Map.of(), new String[0], new int[0]);
+
+    private final CoinSet coins;
+    private final Map<String, Integer> exact;
+    private final String[] keys;
+    private final int[] keyCoins;
+
+    private CoinIndex(CoinSet coins, Map<String, Integer> exact, String[] keys, int[] keyCoins) {
+        this.coins = coins;
+        this.exact = exact;
+        this.keys = keys;
+        this.keyCoins = keyCoins;
+    }
+
+    public static CoinIndex empty() {
+        return EMPTY;
+    }
+
+    public static CoinIndex of(CoinSet coins) {
+        Integer[] byRank = new Integer[coins.size()];
+        for (int i = 0; i < byRank.length; i++) {
+            byRank[i] = i;
+        }
+        Arrays.sort(byRank, Comparator.comparingInt(coins::rankAt));
+
+        Map<String, Integer> exact = new HashMap<>(coins.size() * 4);
+        List<KeyEntry> entries = new ArrayList<>(coins.size() * 3);
+        for (int i = 0; i < coins.size(); i++) {
+            exact.put(normalize(coins.idAt(i)), i);
+        }
+        for (int i : byRank) {
+            addKey(exact, entries, coins.symbolAt(i), i);
+        }
+        for (int i : byRank) {
+            addKey(exact, entries, coins.nameAt(i), i);
+        }
+        for (int i = 0; i < coins.size(); i++) {
+            entries.add(new KeyEntry(normalize(coins.idAt(i)), i));
+        }
+        entries.sort(Comparator.comparing(KeyEntry::key));
+
+        String[] keys = new String[entries.size()];
+        int[] keyCoins = new int[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries.get(i).key();
+            keyCoins[i] = entries.get(i).coin();
+        }
+        return new CoinIndex(coins, exact, keys, keyCoins);
+    }
+
+    public CoinSet getCoins() {
+        return coins;
+    }
+
+    /**
+     * Returns the id of the coin with the given id, symbol or name, or {@code null} when there is none.
+     */
+    public String resolve(String query) {
+        if (query == null) {
+            return null;
+        }
+        if (coins.contains(query)) {
+            return query;
+        }
+        Integer coin = exact.get(normalize(query));
+        return coin == null ? null : coins.idAt(coin);
+    }
+
+    public List<CurrencyMatch> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int from = Arrays.binarySearch(keys, normalized);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        Set<Integer> matches = new HashSet<>();
+        for (int i = from; i < keys.length && keys[i].startsWith(normalized); i++) {
+            matches.add(keyCoins[i]);
+        }
+        Integer resolved = exact.get(normalized);
+        return matches.stream()
+                .sorted(Comparator.<Integer>comparingInt(coin -> coin.equals(resolved) ? 0 : 1)
+                        .thenComparingInt(coins::rankAt)
+                        .thenComparing(coins::idAt))
+                .limit(limit)
+                .map(this::match)
+                .toList();
+    }
+
+    private CurrencyMatch match(int coin) {
+        int rank = coins.rankAt(coin);
+        return new CurrencyMatch(coins.idAt(coin), coins.symbolAt(coin), coins.nameAt(coin),
+                rank == CoinSet.UNRANKED ? null : rank);
+    }
+
+    private static void addKey(Map<String, Integer> exact, List<KeyEntry> entries, String value, int coin) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String key = normalize(value);
+        exact.putIfAbsent(key, coin);
+        entries.add(new KeyEntry(key, coin));
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record KeyEntry(String key, int coin) {}
+}
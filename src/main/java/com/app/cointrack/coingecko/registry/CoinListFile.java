@@ -0,0 +1,116 @@
+package com.app.cointrack.coingecko.registry;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a {@link CoinSet}: a header ({@code magic, version, count}) followed by length prefixed
+ * UTF-8 id, symbol and name plus the market cap rank of every coin, in id order. Files are written to a temporary
+ * sibling and moved into place. Reading decodes every coin in one pass over a read-only mapping of the file into
+ * the heap arrays of a {@link CoinSet}, without an intermediate copy of the file. The same encoding is used for
+ * coin lists shared between instances.
+ */
+final class CoinListFile {
+    private static final int MAGIC = 0x43474c53;
+    private static final int VERSION = 2;
+
+    private CoinListFile() {}
+
+    static void write(Path file, CoinSet coins) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                write(output, coins);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static byte[] toBytes(CoinSet coins) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            write(output, coins);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static CoinSet read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.toString());
+        }
+    }
+
+    static CoinSet fromBytes(byte[] bytes) throws IOException {
+        return read(ByteBuffer.wrap(bytes), "snapshot");
+    }
+
+    private static void write(DataOutputStream output, CoinSet coins) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(coins.size());
+        for (int i = 0; i < coins.size(); i++) {
+            writeString(output, coins.idAt(i));
+            writeString(output, coins.symbolAt(i));
+            writeString(output, coins.nameAt(i));
+            output.writeInt(coins.rankAt(i));
+        }
+    }
+
+    private static CoinSet read(ByteBuffer buffer, String name) throws IOException {
+        try {
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported coin list " + name + ".");
+            }
+            int count = buffer.getInt();
+            String[] ids = new String[count];
+            String[] symbols = new String[count];
+            String[] names = new String[count];
+            int[] ranks = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = readString(buffer);
+                symbols[i] = readString(buffer);
+                names[i] = readString(buffer);
+                ranks[i] = buffer.getInt();
+            }
+            return CoinSet.ofSorted(ids, symbols, names, ranks);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted coin list " + name + ".", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,159 @@
+package com.app.cointrack.coingecko.registry;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Supported coins registry. On start it loads the last persisted coin list (if any) so requests can be served
+ * right away, then refreshes it from the given source in the background and swaps the new set in atomically.
+ * Only requests arriving before the very first set is available wait for it.
+ */
+@Slf4j
+@Component
+public class CoinRegistry {
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("coin-registry").daemon().factory());
+    private final CompletableFuture<Void> initialLoad = new CompletableFuture<>();
+    private final Path file;
+    private final Duration refreshInterval;
+    private final Duration retryInterval;
+    private final Duration initialLoadTimeout;
+    private volatile CoinIndex index = CoinIndex.empty();
+    private volatile long initialLoadDeadline;
+    private CoinListSource source;
+
+    public CoinRegistry(@Value("${cointrack.registry.file}") String file,
+                        @Value("${cointrack.registry.refresh-interval}") Duration refreshInterval,
+                        @Value("${cointrack.registry.retry-interval}") Duration retryInterval,
+                        @Value("${cointrack.registry.initial-load-timeout}") Duration initialLoadTimeout) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.refreshInterval = refreshInterval;
+        this.retryInterval = retryInterval;
+        this.initialLoadTimeout = initialLoadTimeout;
+    }
+
+    public synchronized void start(CoinListSource source) {
+        if (this.source != null) {
+            return;
+        }
+        this.source = source;
+        this.initialLoadDeadline = System.nanoTime() + initialLoadTimeout.toNanos();
+        loadFromFile();
+        scheduler.execute(this::refresh);
+    }
+
+    /**
+     * Returns the current coin set. Until the first set is loaded callers wait for it, but never past
+     * {@code initialLoadTimeout} counted from the registry start.
+     */
+    public CoinSet getCoins() {
+        CoinSet current = index.getCoins();
+        long remaining = initialLoadDeadline - System.nanoTime();
+        if (current.isEmpty() && !initialLoad.isDone() && remaining > 0) {
+            try {
+                initialLoad.get(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Supported currencies are not loaded yet.");
+            }
+            current = index.getCoins();
+        }
+        return current;
+    }
+
+    /**
+     * Non-blocking variant of {@link #getCoins()}: completes right away once a set is loaded, otherwise with the
+     * first set or, at {@code initialLoadTimeout} after the registry start, with whatever is loaded by then.
+     */
+    public CompletableFuture<CoinSet> getCoinsAsync() {
+        long remaining = initialLoadDeadline - System.nanoTime();
+        if (!index.getCoins().isEmpty() || initialLoad.isDone() || remaining <= 0) {
+            return CompletableFuture.completedFuture(index.getCoins());
+        }
+        return initialLoad.copy()
+                .completeOnTimeout(null, remaining, TimeUnit.NANOSECONDS)
+                .handle((ignored, e) -> index.getCoins());
+    }
+
+    /**
+     * Returns the lookup index of the current coin set without waiting; it is empty until the first set is loaded.
+     */
+    public CoinIndex getIndex() {
+        return index;
+    }
+
+    public boolean isLoaded() {
+        return initialLoad.isDone();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void refresh() {
+        try {
+            CoinSet loaded = source.load();
+            if (loaded.isEmpty()) {
+                throw new IOException("CoinGecko returned an empty coin list.");
+            }
+            index = CoinIndex.of(loaded);
+            initialLoad.complete(null);
+            log.info("Loaded {} supported currencies from CoinGecko.", loaded.size());
+            persist(loaded);
+            schedule(refreshInterval);
+        } catch (Exception e) {
+            log.error("Cannot refresh CoinGecko supported currencies, retrying in {}.", retryInterval, e);
+            schedule(retryInterval);
+        }
+    }
+
+    private void schedule(Duration delay) {
+        try {
+            scheduler.schedule(this::refresh, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Coin registry is shut down, refresh is not scheduled.");
+        }
+    }
+
+    private void loadFromFile() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            CoinSet loaded = CoinListFile.read(file);
+            if (!loaded.isEmpty()) {
+                index = CoinIndex.of(loaded);
+                initialLoad.complete(null);
+                log.info("Loaded {} supported currencies from {}.", loaded.size(), file);
+            }
+        } catch (IOException e) {
+            log.warn("Cannot load supported currencies from {}.", file, e);
+        }
+    }
+
+    private void persist(CoinSet loaded) {
+        if (file == null) {
+            return;
+        }
+        try {
+            CoinListFile.write(file, loaded);
+        } catch (IOException e) {
+            log.warn("Cannot persist supported currencies to {}.", file, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface CoinListSource {
+        CoinSet load() throws IOException;
+    }
+}
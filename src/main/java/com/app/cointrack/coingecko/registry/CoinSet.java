@@ -0,0 +1,119 @@
+package com.app.cointrack.coingecko.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of supported coins kept as parallel arrays sorted by id. Coins without a known market cap rank
+ * have rank {@link #UNRANKED}.
+ */
+public final class CoinSet {
+    public static final int UNRANKED = Integer.MAX_VALUE;
+    private static final CoinSet EMPTY = new CoinSet(new String[0], new String[0], new String[0], new int[0]);
+
+    private final String[] ids;
+    private final String[] symbols;
+    private final String[] names;
+    private final int[] ranks;
+
+    private CoinSet(String[] ids, String[] symbols, String[] names, int[] ranks) {
+        this.ids = ids;
+        this.symbols = symbols;
+        this.names = names;
+        this.ranks = ranks;
+    }
+
+    public static CoinSet empty() {
+        return EMPTY;
+    }
+
+    public static CoinSet of(Map<String, String> idToSymbol) {
+        Builder builder = builder();
+        idToSymbol.forEach((id, symbol) -> builder.add(id, symbol, null, UNRANKED));
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static CoinSet ofSorted(String[] ids, String[] symbols, String[] names, int[] ranks) {
+        return new CoinSet(ids, symbols, names, ranks);
+    }
+
+    public boolean contains(String id) {
+        return indexOf(id) >= 0;
+    }
+
+    public int indexOf(String id) {
+        return id == null ? -1 : Math.max(Arrays.binarySearch(ids, id), -1);
+    }
+
+    public String symbolOf(String id) {
+        int i = indexOf(id);
+        return i < 0 ? null : symbols[i];
+    }
+
+    public String idAt(int i) {
+        return ids[i];
+    }
+
+    public String symbolAt(int i) {
+        return symbols[i];
+    }
+
+    public String nameAt(int i) {
+        return names[i];
+    }
+
+    public int rankAt(int i) {
+        return ranks[i];
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public static final class Builder {
+        private final List<Coin> coins = new ArrayList<>();
+
+        private Builder() {}
+
+        public Builder add(String id, String symbol, String name, int rank) {
+            coins.add(new Coin(id, symbol, name, rank));
+            return this;
+        }
+
+        public CoinSet build() {
+            Coin[] sorted = coins.stream()
+                    .sorted(Comparator.comparing(Coin::id))
+                    .toArray(Coin[]::new);
+            String[] ids = new String[sorted.length];
+            String[] symbols = new String[sorted.length];
+            String[] names = new String[sorted.length];
+            int[] ranks = new int[sorted.length];
+            int size = 0;
+            for (Coin coin : sorted) {
+                if (size > 0 && ids[size - 1].equals(coin.id())) {
+                    size--;
+                }
+                ids[size] = coin.id();
+                symbols[size] = coin.symbol();
+                names[size] = coin.name();
+                ranks[size] = coin.rank();
+                size++;
+            }
+            return new CoinSet(Arrays.copyOf(ids, size), Arrays.copyOf(symbols, size),
+                    Arrays.copyOf(names, size), Arrays.copyOf(ranks, size));
+        }
+
+        private record Coin(String id, String symbol, String name, int rank) {}
+    }
+}
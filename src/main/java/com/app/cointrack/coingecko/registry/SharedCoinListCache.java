@@ -0,0 +1,87 @@
+package com.app.cointrack.coingecko.registry;
+
+import com.app.cointrack.coingecko.registry.CoinRegistry.CoinListSource;
+import com.app.cointrack.currency.provider.shared.SharedRateCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Shares the supported coin list between application instances through the {@link SharedRateCache}, so that one
+ * instance per refresh interval downloads it from CoinGecko. Without a shared cache the source is used as is.
+ */
+@Slf4j
+@Component
+public class SharedCoinListCache {
+    private static final String KEY = "cointrack:coins:list";
+    private static final String LEASE = "cointrack:coins:list-refresh";
+
+    private final SharedRateCache cache;
+    private final String owner = UUID.randomUUID().toString();
+    private final Duration ttl;
+    private final Duration leaseDuration;
+    private final Duration maxWait;
+    private final Duration pollInterval;
+
+    @Autowired
+    public SharedCoinListCache(ObjectProvider<SharedRateCache> cache,
+                               @Value("${cointrack.registry.refresh-interval}") Duration ttl,
+                               @Value("${cointrack.shared-cache.lease-duration}") Duration leaseDuration,
+                               @Value("${cointrack.shared-cache.max-wait}") Duration maxWait,
+                               @Value("${cointrack.shared-cache.poll-interval}") Duration pollInterval) {
+        this(cache.getIfAvailable(), ttl, leaseDuration, maxWait, pollInterval);
+    }
+
+    public SharedCoinListCache(SharedRateCache cache, Duration ttl, Duration leaseDuration, Duration maxWait,
+                               Duration pollInterval) {
+        this.cache = cache;
+        this.ttl = ttl;
+        this.leaseDuration = leaseDuration;
+        this.maxWait = maxWait;
+        this.pollInterval = pollInterval;
+    }
+
+    public CoinListSource share(CoinListSource source) {
+        return cache == null ? source : () -> load(source);
+    }
+
+    private CoinSet load(CoinListSource source) throws IOException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        try {
+            while (true) {
+                byte[] shared = cache.get(KEY);
+                if (shared != null) {
+                    return CoinListFile.fromBytes(shared);
+                }
+                if (cache.tryAcquireLease(LEASE, owner, leaseDuration)) {
+                    try {
+                        CoinSet loaded = source.load();
+                        if (!loaded.isEmpty()) {
+                            cache.put(KEY, CoinListFile.toBytes(loaded), ttl);
+                        }
+                        return loaded;
+                    } finally {
+                        cache.releaseLease(LEASE, owner);
+                    }
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    return source.load();
+                }
+                Thread.sleep(pollInterval.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the shared coin list.");
+        } catch (RuntimeException e) {
+            log.warn("Shared coin list is unavailable, loading it directly.", e);
+            return source.load();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.app.cointrack.config;
+
+import com.app.cointrack.currency.provider.CrossRateSource;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.impl.BatchingCurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CachingCurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CoalescingCurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CompositeCurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CrossRateCurrencyProvider;
+import com.app.cointrack.currency.provider.impl.SharedCurrencyProvider;
+import com.app.cointrack.currency.provider.impl.SnapshotCurrencyProvider;
+import com.app.cointrack.currency.provider.shared.InMemorySharedRateCache;
+import com.app.cointrack.currency.provider.shared.SharedRateCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+public class CurrencyProviderConfig {
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("currency-provider-", 0).factory());
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("currency-provider-scheduler").daemon().factory());
+
+    @Value("${cointrack.currency.mode}")
+    private CurrencyProviderMode mode;
+    @Value("${cointrack.snapshot.currencies}")
+    private Set<String> snapshotCurrencies;
+    @Value("${cointrack.snapshot.filters}")
+    private Set<String> snapshotFilters;
+    @Value("${cointrack.snapshot.refresh-interval}")
+    private Duration snapshotRefreshInterval;
+    @Value("${cointrack.snapshot.chunk-size}")
+    private int snapshotChunkSize;
+    @Value("${cointrack.batching.enabled}")
+    private boolean batchingEnabled;
+    @Value("${cointrack.batching.window}")
+    private Duration batchingWindow;
+    @Value("${cointrack.batching.max-size}")
+    private int batchingMaxSize;
+    @Value("${cointrack.composite.providers}")
+    private List<String> compositeProviders;
+    @Value("${cointrack.composite.mode}")
+    private CompositeCurrencyProvider.Mode compositeMode;
+    @Value("${cointrack.composite.hedge-percentile}")
+    private double compositeHedgePercentile;
+    @Value("${cointrack.composite.hedge-initial-delay}")
+    private Duration compositeHedgeInitialDelay;
+    @Value("${cointrack.composite.hedge-min-delay}")
+    private Duration compositeHedgeMinDelay;
+    @Value("${cointrack.composite.median-timeout}")
+    private Duration compositeMedianTimeout;
+    @Value("${cointrack.cross-rate.enabled}")
+    private boolean crossRateEnabled;
+    @Value("${cointrack.cross-rate.pivot}")
+    private String crossRatePivot;
+    @Value("${cointrack.cross-rate.max-staleness}")
+    private Duration crossRateMaxStaleness;
+    @Value("${cointrack.cross-rate.refresh-interval}")
+    private Duration crossRateRefreshInterval;
+    @Value("${cointrack.coalescing.enabled}")
+    private boolean coalescingEnabled;
+    @Value("${cointrack.shared-cache.ttl}")
+    private Duration sharedCacheTtl;
+    @Value("${cointrack.shared-cache.lease-duration}")
+    private Duration sharedCacheLeaseDuration;
+    @Value("${cointrack.shared-cache.max-wait}")
+    private Duration sharedCacheMaxWait;
+    @Value("${cointrack.shared-cache.poll-interval}")
+    private Duration sharedCachePollInterval;
+    @Value("${cointrack.cache.enabled}")
+    private boolean cacheEnabled;
+    @Value("${cointrack.cache.ttl}")
+    private Duration cacheTtl;
+    @Value("${cointrack.cache.stale-while-revalidate}")
+    private Duration cacheStaleWhileRevalidate;
+    @Value("${cointrack.cache.stale-if-error}")
+    private Duration cacheStaleIfError;
+    @Value("${cointrack.cache.maximum-size}")
+    private long cacheMaximumSize;
+
+    @Bean
+    @Primary
+    public CurrencyProvider currencyProvider(BeanFactory beanFactory, MeterRegistry meterRegistry,
+                                             ObjectProvider<SharedRateCache> sharedRateCache) {
+        if (mode == CurrencyProviderMode.SNAPSHOT) {
+            SnapshotCurrencyProvider snapshotProvider = new SnapshotCurrencyProvider(
+                    beanFactory.getBean(compositeProviders.getFirst(), CurrencyProvider.class),
+                    snapshotCurrencies, snapshotFilters, snapshotChunkSize, Clock.systemUTC());
+            snapshotProvider.start(scheduler, snapshotRefreshInterval);
+            Gauge.builder("cointrack.snapshot.age", snapshotProvider,
+                            snapshot -> snapshot.getSnapshotAge().map(Duration::toMillis).orElse(-1L) / 1000.0)
+                    .description("Age of the served rates snapshot, -1 before the first one")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("cointrack.snapshot.refresh.duration", snapshotProvider,
+                            snapshot -> snapshot.getLastRefreshDuration().toMillis() / 1000.0)
+                    .description("Duration of the last rates snapshot refresh")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            return snapshotProvider;
+        }
+        List<CurrencyProvider> upstreams = compositeProviders.stream()
+                .map(name -> upstream(name, beanFactory.getBean(name, CurrencyProvider.class), meterRegistry))
+                .toList();
+        CurrencyProvider provider = upstreams.getFirst();
+        if (upstreams.size() > 1) {
+            CompositeCurrencyProvider compositeProvider = new CompositeCurrencyProvider(upstreams, compositeMode,
+                    compositeHedgePercentile, compositeHedgeInitialDelay, compositeHedgeMinDelay,
+                    compositeMedianTimeout, scheduler);
+            FunctionCounter.builder("cointrack.composite.hedged-requests", compositeProvider, CompositeCurrencyProvider::getHedgedRequests)
+                    .description("Requests sent to a further provider because the previous one was slow")
+                    .register(meterRegistry);
+            provider = compositeProvider;
+        }
+        if (coalescingEnabled) {
+            CoalescingCurrencyProvider coalescingProvider = new CoalescingCurrencyProvider(provider);
+            FunctionCounter.builder("cointrack.coalescing.requests", coalescingProvider, CoalescingCurrencyProvider::getCoalescedRequests)
+                    .description("Requests served by an identical in-flight request")
+                    .register(meterRegistry);
+            provider = coalescingProvider;
+        }
+        if (crossRateEnabled && beanFactory.getBean(compositeProviders.getFirst()) instanceof CrossRateSource crossRateSource) {
+            CrossRateCurrencyProvider crossRateProvider = new CrossRateCurrencyProvider(provider, crossRateSource,
+                    crossRatePivot, crossRateMaxStaleness, crossRateRefreshInterval, cacheMaximumSize, executor);
+            FunctionCounter.builder("cointrack.cross-rate.derived-requests", crossRateProvider, CrossRateCurrencyProvider::getDerivedRequests)
+                    .description("Requests answered with rates derived through the pivot currency")
+                    .register(meterRegistry);
+            provider = crossRateProvider;
+        }
+        SharedRateCache sharedCache = sharedRateCache.getIfAvailable();
+        if (sharedCache != null) {
+            SharedCurrencyProvider sharedProvider = new SharedCurrencyProvider(provider, sharedCache, sharedCacheTtl,
+                    sharedCacheLeaseDuration, sharedCacheMaxWait, sharedCachePollInterval, executor);
+            bindSharedCacheMetrics(meterRegistry, sharedProvider);
+            provider = sharedProvider;
+        }
+        if (cacheEnabled) {
+            CachingCurrencyProvider cachingProvider = new CachingCurrencyProvider(provider, cacheTtl,
+                    cacheStaleWhileRevalidate, cacheStaleIfError, cacheMaximumSize, executor);
+            bindCacheMetrics(meterRegistry, cachingProvider);
+            provider = cachingProvider;
+        }
+        return provider;
+    }
+
+    /**
+     * Embedded shared tier for single-instance deployments; a fleet provides its own {@link SharedRateCache} bean.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cointrack.shared-cache.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(SharedRateCache.class)
+    public SharedRateCache sharedRateCache() {
+        return new InMemorySharedRateCache();
+    }
+
+    private CurrencyProvider upstream(String name, CurrencyProvider provider, MeterRegistry meterRegistry) {
+        if (!batchingEnabled) {
+            return provider;
+        }
+        BatchingCurrencyProvider batchingProvider =
+                new BatchingCurrencyProvider(provider, batchingWindow, batchingMaxSize, scheduler, executor);
+        FunctionCounter.builder("cointrack.batching.batches", batchingProvider, batching -> batching.getStats().batches())
+                .description("Upstream calls made for batches of requests")
+                .tag("provider", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.batching.requests", batchingProvider, batching -> batching.getStats().batchedRequests())
+                .description("Requests served by batched upstream calls")
+                .tag("provider", name)
+                .register(meterRegistry);
+        return batchingProvider;
+    }
+
+    private static void bindCacheMetrics(MeterRegistry meterRegistry, CachingCurrencyProvider cachingProvider) {
+        FunctionCounter.builder("cointrack.cache.requests", cachingProvider, cache -> cache.getStats().hits())
+                .description("Rate cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.cache.requests", cachingProvider, cache -> cache.getStats().staleHits())
+                .description("Rate cache lookups")
+                .tag("result", "stale")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.cache.requests", cachingProvider, cache -> cache.getStats().misses())
+                .description("Rate cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.cache.fallbacks", cachingProvider, cache -> cache.getStats().fallbacks())
+                .description("Cache misses served from expired rates because upstream was unavailable")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.cache.evictions", cachingProvider, cache -> cache.getStats().evictions())
+                .description("Rates evicted from the rate cache")
+                .register(meterRegistry);
+        Gauge.builder("cointrack.cache.size", cachingProvider, cache -> cache.getStats().size())
+                .description("Rates held by the rate cache")
+                .register(meterRegistry);
+    }
+
+    private static void bindSharedCacheMetrics(MeterRegistry meterRegistry, SharedCurrencyProvider sharedProvider) {
+        FunctionCounter.builder("cointrack.shared-cache.requests", sharedProvider, shared -> shared.getStats().hits())
+                .description("Shared rate cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.shared-cache.requests", sharedProvider, shared -> shared.getStats().waitedHits())
+                .description("Shared rate cache lookups")
+                .tag("result", "waited")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.shared-cache.requests", sharedProvider, shared -> shared.getStats().fetches())
+                .description("Shared rate cache lookups")
+                .tag("result", "fetch")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.shared-cache.requests", sharedProvider, shared -> shared.getStats().fallbacks())
+                .description("Shared rate cache lookups")
+                .tag("result", "fallback")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.shared-cache.errors", sharedProvider, shared -> shared.getStats().errors())
+                .description("Shared rate cache operations that failed and were bypassed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdownExecutors() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+}
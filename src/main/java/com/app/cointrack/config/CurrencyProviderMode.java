@@ -0,0 +1,6 @@
+package com.app.cointrack.config;
+
+public enum CurrencyProviderMode {
+    ON_DEMAND,
+    SNAPSHOT
+}
@@ -0,0 +1,19 @@
+package com.app.cointrack.config;
+
+import com.app.cointrack.history.store.TimeSeriesStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class HistoryConfig {
+    @Bean(destroyMethod = "close")
+    public TimeSeriesStore historyStore(@Value("${cointrack.history.directory}") Path directory,
+                                        @Value("${cointrack.history.chunk-size}") int chunkSize,
+                                        @Value("${cointrack.history.max-segments}") int maxSegments) throws IOException {
+        return TimeSeriesStore.open(directory, chunkSize, maxSegments);
+    }
+}
@@ -1,22 +1,125 @@
 package com.app.cointrack.config;
 
+import com.app.cointrack.coingecko.guard.AdaptiveConcurrencyLimit;
+import com.app.cointrack.coingecko.guard.CircuitBreaker;
+import com.app.cointrack.coingecko.guard.TokenBucket;
+import com.app.cointrack.coingecko.guard.UpstreamGuard;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class OkHttpClientConfig {
+    @Value("${cointrack.http.max-requests}")
+    private int maxRequests;
+    @Value("${cointrack.http.max-requests-per-host}")
+    private int maxRequestsPerHost;
+    @Value("${cointrack.upstream.rate-limit}")
+    private int rateLimit;
+    @Value("${cointrack.upstream.rate-limit-period}")
+    private Duration rateLimitPeriod;
+    @Value("${cointrack.upstream.max-wait}")
+    private Duration maxWait;
+    @Value("${cointrack.upstream.concurrency.initial-limit}")
+    private int initialConcurrencyLimit;
+    @Value("${cointrack.upstream.concurrency.min-limit}")
+    private int minConcurrencyLimit;
+    @Value("${cointrack.upstream.concurrency.max-limit}")
+    private int maxConcurrencyLimit;
+    @Value("${cointrack.upstream.concurrency.latency-threshold}")
+    private Duration latencyThreshold;
+    @Value("${cointrack.upstream.concurrency.backoff-ratio}")
+    private double backoffRatio;
+    @Value("${cointrack.upstream.circuit-breaker.window-size}")
+    private int circuitBreakerWindowSize;
+    @Value("${cointrack.upstream.circuit-breaker.minimum-calls}")
+    private int circuitBreakerMinimumCalls;
+    @Value("${cointrack.upstream.circuit-breaker.failure-rate-threshold}")
+    private int circuitBreakerFailureRateThreshold;
+    @Value("${cointrack.upstream.circuit-breaker.open-duration}")
+    private Duration circuitBreakerOpenDuration;
+
     @Bean
-    public OkHttpClient okHttpClient() {
+    public OkHttpClient okHttpClient(MeterRegistry meterRegistry) {
+        Dispatcher dispatcher = new Dispatcher(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("okhttp-dispatcher-", 0).factory()));
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        ConnectionPool connectionPool = new ConnectionPool(10, 5, TimeUnit.MINUTES);
+        UpstreamGuard upstreamGuard = new UpstreamGuard(
+                new TokenBucket(rateLimit, rateLimitPeriod, rateLimit),
+                new AdaptiveConcurrencyLimit(initialConcurrencyLimit, minConcurrencyLimit, maxConcurrencyLimit,
+                        latencyThreshold, backoffRatio),
+                new CircuitBreaker(circuitBreakerWindowSize, circuitBreakerMinimumCalls,
+                        circuitBreakerFailureRateThreshold, circuitBreakerOpenDuration),
+                maxWait);
+        bindMetrics(meterRegistry, dispatcher, connectionPool);
+        bindGuardMetrics(meterRegistry, upstreamGuard);
         return new OkHttpClient.Builder()
                 .connectTimeout(10, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
                 .retryOnConnectionFailure(true)
-                .connectionPool(new ConnectionPool(10, 5, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .addInterceptor(upstreamGuard)
                 .build();
     }
+
+    private static void bindMetrics(MeterRegistry meterRegistry, Dispatcher dispatcher, ConnectionPool connectionPool) {
+        Gauge.builder("okhttp.dispatcher.calls", dispatcher, Dispatcher::runningCallsCount)
+                .description("Asynchronous calls of the OkHttp dispatcher")
+                .tag("state", "running")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.dispatcher.calls", dispatcher, Dispatcher::queuedCallsCount)
+                .description("Asynchronous calls of the OkHttp dispatcher")
+                .tag("state", "queued")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.pool.connections", connectionPool, pool -> pool.connectionCount() - pool.idleConnectionCount())
+                .description("Connections of the OkHttp connection pool")
+                .tag("state", "active")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.pool.connections", connectionPool, ConnectionPool::idleConnectionCount)
+                .description("Connections of the OkHttp connection pool")
+                .tag("state", "idle")
+                .register(meterRegistry);
+    }
+
+    private static void bindGuardMetrics(MeterRegistry meterRegistry, UpstreamGuard upstreamGuard) {
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("cointrack.upstream.circuit.state", upstreamGuard,
+                            guard -> guard.getStats().circuitState() == state ? 1 : 0)
+                    .description("State of the upstream circuit breaker")
+                    .tag("state", state.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("cointrack.upstream.concurrency.limit", upstreamGuard, guard -> guard.getStats().concurrencyLimit())
+                .description("Adaptive limit of concurrent upstream calls")
+                .register(meterRegistry);
+        Gauge.builder("cointrack.upstream.concurrency.in-flight", upstreamGuard, guard -> guard.getStats().inFlight())
+                .description("Upstream calls in flight")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.upstream.rejections", upstreamGuard, guard -> guard.getStats().circuitOpenRejections())
+                .description("Upstream calls rejected without being sent")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.upstream.rejections", upstreamGuard, guard -> guard.getStats().rateLimitRejections())
+                .description("Upstream calls rejected without being sent")
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.upstream.rejections", upstreamGuard, guard -> guard.getStats().concurrencyLimitRejections())
+                .description("Upstream calls rejected without being sent")
+                .tag("reason", "concurrency_limit")
+                .register(meterRegistry);
+    }
 }
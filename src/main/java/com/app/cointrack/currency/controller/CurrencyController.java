@@ -1,33 +1,101 @@
 package com.app.cointrack.currency.controller;
 
-import com.app.cointrack.currency.dto.CurrencyResponseDTO;
+import com.app.cointrack.currency.dto.BulkExchangeRequestDTO;
+import com.app.cointrack.currency.dto.BulkExchangeResultDTO;
+import com.app.cointrack.currency.dto.CurrencySearchResultDTO;
 import com.app.cointrack.currency.dto.ExchangeRequestDTO;
-import com.app.cointrack.currency.dto.ExchangeResultDTO;
+import com.app.cointrack.currency.dto.ExchangeResponseDTO;
 import com.app.cointrack.currency.service.CurrencyService;
+import com.app.cointrack.currency.stream.RateStreamService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/currencies")
 @AllArgsConstructor
 public class CurrencyController {
     private final CurrencyService currencyService;
+    private final RateStreamService rateStreamService;
+    private final RateCachePolicy rateCachePolicy;
+    private final RateResponseCache rateResponseCache;
 
-    @GetMapping("/{currency}")
-    public CurrencyResponseDTO getCurrency(@PathVariable String currency, @RequestParam(name = "filter", required = false) Set<String> filters) {
-        return currencyService.getCurrency(currency, filters);
+    @GetMapping("/search")
+    public List<CurrencySearchResultDTO> searchCurrencies(@RequestParam(name = "query") String query, @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return currencyService.searchCurrencies(query, limit);
     }
 
-    @PostMapping("/exchange")
-    public ResponseEntity<Map<String, Object>> exchangeCurrencies(@Valid @RequestBody ExchangeRequestDTO dto) {
-        List<ExchangeResultDTO> results = currencyService.exchangeCurrencies(dto.getFrom(), dto.getTo(), dto.getAmount());
-        Map<String, Object> response = new LinkedHashMap<>();
-        response.put("from", dto.getFrom());
-        results.forEach(result -> response.put(result.getTo(), result));
-        return ResponseEntity.ok(response);
+    @GetMapping(value = "/{currency}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<byte[]>> getCurrency(@PathVariable String currency, @RequestParam(name = "filter", required = false) Set<String> filters,
+                                                                @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = rateCachePolicy.representation(accept);
+        return currencyService.getCurrency(currency, filters)
+                .thenApply(rates -> {
+                    String eTag = rateCachePolicy.eTag(rates, representation);
+                    CacheControl cacheControl = rateCachePolicy.cacheControl(rates);
+                    if (rateCachePolicy.matches(ifNoneMatch, eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl)
+                                .varyBy(HttpHeaders.ACCEPT).build();
+                    }
+                    return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT)
+                            .contentType(representation)
+                            .body(rateResponseCache.get(representation, rates));
+                });
+    }
+
+    @GetMapping(value = "/{currency}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCurrency(@PathVariable String currency, @RequestParam(name = "filter") Set<String> filters, @RequestParam(name = "threshold", defaultValue = "0") double threshold) {
+        return rateStreamService.subscribe(currency, filters, threshold);
+    }
+
+    @PostMapping(value = "/exchange", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<ExchangeResponseDTO>> exchangeCurrencies(@Valid @RequestBody ExchangeRequestDTO dto) {
+        return currencyService.exchangeCurrencies(dto.getFrom(), dto.getTo(), dto.getAmount())
+                .thenApply(results -> ResponseEntity.ok()
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(ExchangeResponseDTO.builder()
+                                .from(dto.getFrom())
+                                .results(results)
+                                .build()));
+    }
+
+    @PostMapping("/exchange/bulk")
+    public ResponseEntity<ResponseBodyEmitter> exchangeCurrenciesBulk(@Valid @RequestBody BulkExchangeRequestDTO dto) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        currencyService.exchangeCurrenciesBulk(dto.getItems(), result -> send(emitter, result))
+                .whenComplete((ignored, error) -> {
+                    if (error == null) {
+                        emitter.complete();
+                    } else {
+                        emitter.completeWithError(error);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+
+    private static void send(ResponseBodyEmitter emitter, BulkExchangeResultDTO result) {
+        Set<ResponseBodyEmitter.DataWithMediaType> line = new LinkedHashSet<>();
+        line.add(new ResponseBodyEmitter.DataWithMediaType(result, MediaType.APPLICATION_JSON));
+        line.add(new ResponseBodyEmitter.DataWithMediaType("\n", MediaType.TEXT_PLAIN));
+        try {
+            emitter.send(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,92 @@
+package com.app.cointrack.currency.controller;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HTTP caching headers of rate responses. The strong ETag is the rate snapshot version, so it changes whenever
+ * any returned rate is refetched, and {@code max-age} is what is left of {@code maxAge} since the rates were
+ * fetched. Responses are negotiated between JSON and CBOR, so binary representations get their own ETag and every
+ * response varies by {@code Accept}.
+ */
+@Component
+public class RateCachePolicy {
+    private final Duration maxAge;
+    private final Duration staleWhileRevalidate;
+    private final Duration staleIfError;
+
+    public RateCachePolicy(@Value("${cointrack.http-cache.max-age}") Duration maxAge,
+                           @Value("${cointrack.http-cache.stale-while-revalidate}") Duration staleWhileRevalidate,
+                           @Value("${cointrack.http-cache.stale-if-error}") Duration staleIfError) {
+        this.maxAge = maxAge;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleIfError = staleIfError;
+    }
+
+    public String eTag(CurrencyRates rates, MediaType representation) {
+        String version = Long.toHexString(rates.getVersion());
+        return MediaType.APPLICATION_CBOR.equals(representation) ? "\"" + version + "-cbor\"" : "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the representation content negotiation picks for an {@code Accept} header: the most specific
+     * acceptable type, preferring JSON when a wildcard accepts both.
+     */
+    public MediaType representation(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return MediaType.APPLICATION_CBOR;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    public CacheControl cacheControl(CurrencyRates rates) {
+        long remaining = maxAge.toMillis() - (System.currentTimeMillis() - rates.getFetchedAt());
+        return CacheControl.maxAge(Duration.ofSeconds(Math.max(remaining, 0) / 1000))
+                .cachePublic()
+                .staleWhileRevalidate(staleWhileRevalidate)
+                .staleIfError(staleIfError);
+    }
+
+    /**
+     * Returns whether an {@code If-None-Match} header value matches the ETag, using the weak comparison the header
+     * requires.
+     */
+    public boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || (trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
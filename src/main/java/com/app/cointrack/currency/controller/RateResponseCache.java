@@ -0,0 +1,90 @@
+package com.app.cointrack.currency.controller;
+
+import com.app.cointrack.currency.factory.CurrencyDTOFactory;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Encoded rate responses per source, target set and representation of the rates, so requests spelling the same
+ * currency or filters differently share an entry. An entry is served as long as the rates snapshot version is
+ * unchanged and is re-encoded once any of the rates is refetched, so repeated requests skip building and
+ * serializing the response. The cache is bounded by the total size of the encoded responses.
+ */
+@Component
+public class RateResponseCache {
+    private final Cache<Key, Encoded> responses;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RateResponseCache(ObjectMapper objectMapper,
+                             @Value("${cointrack.response-cache.maximum-size}") DataSize maximumSize,
+                             MeterRegistry meterRegistry) {
+        this.jsonMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .<Key, Encoded>weigher((key, encoded) -> encoded.bytes().length)
+                .build();
+        FunctionCounter.builder("cointrack.response-cache.requests", hits, LongAdder::sum)
+                .description("Rate response lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.response-cache.requests", misses, LongAdder::sum)
+                .description("Rate response lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("cointrack.response-cache.size", responses, Cache::estimatedSize)
+                .description("Encoded rate responses held by the response cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the response body for the rates in the given representation, encoding it only when the cached one
+     * belongs to another snapshot version.
+     */
+    public byte[] get(MediaType representation, CurrencyRates rates) {
+        String[] targets = new String[rates.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = rates.targetAt(i);
+        }
+        Key key = new Key(rates.getSource(), Set.of(targets), representation);
+        Encoded cached = responses.getIfPresent(key);
+        if (cached != null && cached.version() == rates.getVersion()) {
+            hits.increment();
+            return cached.bytes();
+        }
+        misses.increment();
+        Encoded encoded = new Encoded(rates.getVersion(), encode(rates, representation));
+        responses.asMap().merge(key, encoded, (current, added) -> current.version() > added.version() ? current : added);
+        return encoded.bytes();
+    }
+
+    private byte[] encode(CurrencyRates rates, MediaType representation) {
+        ObjectMapper mapper = MediaType.APPLICATION_CBOR.equals(representation) ? cborMapper : jsonMapper;
+        try {
+            return mapper.writeValueAsBytes(CurrencyDTOFactory.create(rates));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Key(String source, Set<String> targets, MediaType representation) {}
+
+    private record Encoded(long version, byte[] bytes) {}
+}
@@ -0,0 +1,21 @@
+package com.app.cointrack.currency.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkExchangeRequestDTO {
+    @NotNull
+    @Size(min = 1, max = 1000, message = "You must send between 1 and 1000 exchange items.")
+    List<@Valid ExchangeRequestDTO> items;
+}
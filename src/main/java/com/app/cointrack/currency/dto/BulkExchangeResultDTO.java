@@ -0,0 +1,17 @@
+package com.app.cointrack.currency.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkExchangeResultDTO {
+    int index;
+    String from;
+    Map<String, ExchangeResultDTO> results;
+    String error;
+}
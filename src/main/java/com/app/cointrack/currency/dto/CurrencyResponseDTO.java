@@ -1,15 +1,16 @@
 package com.app.cointrack.currency.dto;
 
+import com.app.cointrack.currency.rate.CurrencyRates;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.util.Map;
-
 @Getter
 @Builder
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"source", "rates"})
 public class CurrencyResponseDTO {
     String source;
-    Map<String, Double> rates;
+    CurrencyRates rates;
 }
@@ -0,0 +1,15 @@
+package com.app.cointrack.currency.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CurrencySearchResultDTO {
+    String id;
+    String symbol;
+    String name;
+    Integer marketCapRank;
+}
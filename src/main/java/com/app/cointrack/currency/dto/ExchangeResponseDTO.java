@@ -0,0 +1,15 @@
+package com.app.cointrack.currency.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+@JsonSerialize(using = ExchangeResponseSerializer.class)
+public class ExchangeResponseDTO {
+    String from;
+    List<ExchangeResultDTO> results;
+}
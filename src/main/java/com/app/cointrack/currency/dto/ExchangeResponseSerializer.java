@@ -0,0 +1,27 @@
+package com.app.cointrack.currency.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes {@code from} followed by one field per target currency, in the order of the results, straight to the
+ * generator. The object size is written up front so that binary formats can use a definite-length map.
+ */
+public class ExchangeResponseSerializer extends StdSerializer<ExchangeResponseDTO> {
+    public ExchangeResponseSerializer() {
+        super(ExchangeResponseDTO.class);
+    }
+
+    @Override
+    public void serialize(ExchangeResponseDTO response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(response, response.getResults().size() + 1);
+        generator.writeStringField("from", response.getFrom());
+        for (ExchangeResultDTO result : response.getResults()) {
+            provider.defaultSerializeField(result.getTo(), result, generator);
+        }
+        generator.writeEndObject();
+    }
+}
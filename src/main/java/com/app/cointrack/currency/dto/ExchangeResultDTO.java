@@ -2,6 +2,7 @@ package com.app.cointrack.currency.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
@@ -10,6 +11,7 @@ import lombok.ToString;
 @Builder
 @ToString
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"rate", "amount", "result", "fee"})
 public class ExchangeResultDTO {
     @JsonIgnore
     String to;
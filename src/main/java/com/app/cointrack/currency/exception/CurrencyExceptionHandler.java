@@ -1,10 +1,13 @@
 package com.app.cointrack.currency.exception;
 
+import com.app.cointrack.alert.controller.AlertController;
 import com.app.cointrack.common.exception.ExternalApiCommunicationException;
 import com.app.cointrack.common.exception.RequestValidationException;
 import com.app.cointrack.common.response.ExceptionResponse;
 import com.app.cointrack.common.response.FieldValidationFailedResponse;
 import com.app.cointrack.currency.controller.CurrencyController;
+import com.app.cointrack.history.controller.HistoryController;
+import com.app.cointrack.portfolio.controller.PortfolioController;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -17,7 +20,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-@ControllerAdvice(assignableTypes = {CurrencyController.class})
+@ControllerAdvice(assignableTypes = {CurrencyController.class, HistoryController.class, PortfolioController.class,
+        AlertController.class})
 public class CurrencyExceptionHandler {
     @ResponseBody
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
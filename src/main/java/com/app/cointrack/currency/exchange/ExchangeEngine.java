@@ -0,0 +1,115 @@
+package com.app.cointrack.currency.exchange;
+
+import com.app.cointrack.currency.dto.ExchangeResultDTO;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Computes exchange results in scaled-long fixed point: amounts, fees and results use the configured scale, rates
+ * keep their significant digits. The fee is taken from the amount first and the rest is converted with every rate;
+ * each multiplication is rounded with the configured rounding mode. Amounts too large for a scaled long are
+ * computed with {@link BigDecimal} using the same rounding. Rates of a single request are processed sequentially
+ * unless there are at least {@code parallelThreshold} of them.
+ */
+@Component
+public class ExchangeEngine {
+    private static final int FEE_RATE_SCALE = 12;
+
+    private final int scale;
+    private final RoundingMode roundingMode;
+    private final long[] feeThresholds;
+    private final long[] feeRates;
+    private final int parallelThreshold;
+
+    public ExchangeEngine(@Value("${cointrack.exchange.scale}") int scale,
+                          @Value("${cointrack.exchange.rounding-mode}") RoundingMode roundingMode,
+                          @Value("${cointrack.exchange.fee-schedule}") String feeSchedule,
+                          @Value("${cointrack.exchange.parallel-threshold}") int parallelThreshold) {
+        if (scale < 0 || scale > FixedPoint.MAX_SCALE) {
+            throw new IllegalArgumentException("Exchange scale must be between 0 and " + FixedPoint.MAX_SCALE + ".");
+        }
+        this.scale = scale;
+        this.roundingMode = roundingMode;
+        FeeSchedule schedule = FeeSchedule.parse(feeSchedule);
+        this.feeThresholds = new long[schedule.size()];
+        this.feeRates = new long[schedule.size()];
+        for (int i = 0; i < schedule.size(); i++) {
+            feeThresholds[i] = FixedPoint.scale(schedule.thresholdAt(i), scale, roundingMode);
+            feeRates[i] = FixedPoint.scale(schedule.rateAt(i), FEE_RATE_SCALE, roundingMode);
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public List<ExchangeResultDTO> exchange(CurrencyRates rates, double amount) {
+        long scaledAmount;
+        try {
+            scaledAmount = FixedPoint.scale(amount, scale, roundingMode);
+        } catch (ArithmeticException e) {
+            return exchangeDecimal(rates, amount);
+        }
+        long fee = FixedPoint.multiply(scaledAmount, feeRate(scaledAmount), FEE_RATE_SCALE, roundingMode);
+        long amountAfterFee = scaledAmount - fee;
+        double amountValue = FixedPoint.toDouble(scaledAmount, scale);
+        double feeValue = FixedPoint.toDouble(fee, scale);
+        if (rates.size() < parallelThreshold) {
+            ExchangeResultDTO[] results = new ExchangeResultDTO[rates.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = exchange(rates, i, amountAfterFee, amountValue, feeValue);
+            }
+            return Arrays.asList(results);
+        }
+        return IntStream.range(0, rates.size())
+                .parallel()
+                .mapToObj(i -> exchange(rates, i, amountAfterFee, amountValue, feeValue))
+                .toList();
+    }
+
+    private ExchangeResultDTO exchange(CurrencyRates rates, int i, long amountAfterFee, double amount, double fee) {
+        double rateValue = rates.rateAt(i);
+        int rateScale = FixedPoint.significantScale(rateValue);
+        long rate = FixedPoint.scale(rateValue, rateScale, roundingMode);
+        return ExchangeResultDTO.builder()
+                .to(rates.targetAt(i))
+                .rate(FixedPoint.toDouble(rate, rateScale))
+                .amount(amount)
+                .result(FixedPoint.multiplyToDouble(amountAfterFee, scale, rate, rateScale, roundingMode))
+                .fee(fee)
+                .build();
+    }
+
+    private List<ExchangeResultDTO> exchangeDecimal(CurrencyRates rates, double amount) {
+        BigDecimal scaledAmount = BigDecimal.valueOf(amount).setScale(scale, roundingMode);
+        BigDecimal fee = scaledAmount.multiply(BigDecimal.valueOf(feeRate(Long.MAX_VALUE), FEE_RATE_SCALE))
+                .setScale(scale, roundingMode);
+        BigDecimal amountAfterFee = scaledAmount.subtract(fee);
+        ExchangeResultDTO[] results = new ExchangeResultDTO[rates.size()];
+        for (int i = 0; i < results.length; i++) {
+            double rateValue = rates.rateAt(i);
+            int rateScale = FixedPoint.significantScale(rateValue);
+            BigDecimal rate = BigDecimal.valueOf(rateValue).setScale(rateScale, roundingMode);
+            results[i] = ExchangeResultDTO.builder()
+                    .to(rates.targetAt(i))
+                    .rate(rate.doubleValue())
+                    .amount(scaledAmount.doubleValue())
+                    .result(amountAfterFee.multiply(rate).setScale(scale, roundingMode).doubleValue())
+                    .fee(fee.doubleValue())
+                    .build();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Returns the fee rate of the tier the scaled amount falls in; amounts beyond a long fall in the highest tier.
+     */
+    private long feeRate(long amount) {
+        int tier = Arrays.binarySearch(feeThresholds, amount);
+        return feeRates[tier >= 0 ? tier : -tier - 2];
+    }
+}
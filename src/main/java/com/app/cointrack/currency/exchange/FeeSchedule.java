@@ -0,0 +1,63 @@
+package com.app.cointrack.currency.exchange;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Tiered fee rates keyed by the minimal exchanged amount, parsed from {@code "threshold:rate,..."} (for example
+ * {@code "0:0.01,10000:0.005"}). The tier with the highest threshold not above the amount applies.
+ */
+public final class FeeSchedule {
+    private final BigDecimal[] thresholds;
+    private final BigDecimal[] rates;
+
+    private FeeSchedule(BigDecimal[] thresholds, BigDecimal[] rates) {
+        this.thresholds = thresholds;
+        this.rates = rates;
+    }
+
+    public static FeeSchedule parse(String schedule) {
+        BigDecimal[][] tiers = Arrays.stream(schedule.split(","))
+                .map(String::trim)
+                .filter(tier -> !tier.isEmpty())
+                .map(FeeSchedule::parseTier)
+                .sorted(Comparator.comparing(tier -> tier[0]))
+                .toArray(BigDecimal[][]::new);
+        if (tiers.length == 0 || tiers[0][0].signum() != 0) {
+            throw new IllegalArgumentException("Fee schedule must start with a tier for amount 0.");
+        }
+        BigDecimal[] thresholds = new BigDecimal[tiers.length];
+        BigDecimal[] rates = new BigDecimal[tiers.length];
+        for (int i = 0; i < tiers.length; i++) {
+            thresholds[i] = tiers[i][0];
+            rates[i] = tiers[i][1];
+        }
+        return new FeeSchedule(thresholds, rates);
+    }
+
+    int size() {
+        return thresholds.length;
+    }
+
+    BigDecimal thresholdAt(int i) {
+        return thresholds[i];
+    }
+
+    BigDecimal rateAt(int i) {
+        return rates[i];
+    }
+
+    private static BigDecimal[] parseTier(String tier) {
+        String[] parts = tier.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid fee schedule tier '" + tier + "'.");
+        }
+        BigDecimal threshold = new BigDecimal(parts[0].trim());
+        BigDecimal rate = new BigDecimal(parts[1].trim());
+        if (threshold.signum() < 0 || rate.signum() < 0 || rate.compareTo(BigDecimal.ONE) >= 0) {
+            throw new IllegalArgumentException("Invalid fee schedule tier '" + tier + "'.");
+        }
+        return new BigDecimal[]{threshold, rate};
+    }
+}
@@ -0,0 +1,174 @@
+package com.app.cointrack.currency.exchange;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Arithmetic on decimals stored as longs scaled by a power of ten. Doubles are quantized from their shortest
+ * decimal representation like decimals, and every quantization and product is rounded with the given rounding mode.
+ * Products whose result does not fit a long fall back to {@link BigDecimal} with the same rounding, so results
+ * do not depend on the path taken.
+ */
+final class FixedPoint {
+    static final int MAX_SCALE = 18;
+    private static final int SIGNIFICANT_DIGITS = 15;
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {}
+
+    /**
+     * Quantizes the shortest decimal representation of {@code value} to {@code scale} with the given rounding mode,
+     * the same as {@code BigDecimal.valueOf(value).setScale(scale, roundingMode)}. The binary product is used only
+     * when it already is that decimal, or when it lies clearly away from the halfway point of a half rounding mode.
+     *
+     * @throws ArithmeticException when the result does not fit a long
+     */
+    static long scale(double value, int scale, RoundingMode roundingMode) {
+        double scaled = value * POWERS_OF_TEN[scale];
+        if (Math.abs(scaled) < 0x1p52) {
+            long nearest = Math.round(scaled);
+            if ((double) nearest / POWERS_OF_TEN[scale] == value) {
+                return nearest;
+            }
+            double fraction = scaled - Math.floor(scaled);
+            if (isHalfRounding(roundingMode) && Math.abs(fraction - 0.5) > 4 * Math.ulp(scaled)) {
+                return nearest;
+            }
+        }
+        return scale(BigDecimal.valueOf(value), scale, roundingMode);
+    }
+
+    static long scale(BigDecimal value, int scale, RoundingMode roundingMode) {
+        return value.setScale(scale, roundingMode).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Returns the scale keeping {@value #SIGNIFICANT_DIGITS} significant digits of the value, so that both large
+     * and tiny rates fit a long without losing the precision a double carries.
+     */
+    static int significantScale(double value) {
+        if (value == 0 || !Double.isFinite(value)) {
+            return 0;
+        }
+        int magnitude = (int) Math.floor(Math.log10(Math.abs(value)));
+        return Math.clamp(SIGNIFICANT_DIGITS - 1 - magnitude, 0, MAX_SCALE);
+    }
+
+    static double toDouble(long value, int scale) {
+        if (Math.abs(value) < (1L << 53)) {
+            return (double) value / POWERS_OF_TEN[scale];
+        }
+        return BigDecimal.valueOf(value, scale).doubleValue();
+    }
+
+    /**
+     * Returns {@code a * b} in the scale of {@code a}, where {@code b} has scale {@code bScale}. The 128-bit product
+     * is divided by {@code 10^bScale} without leaving long arithmetic.
+     *
+     * @throws ArithmeticException when the result does not fit a long
+     */
+    static long multiply(long a, long b, int bScale, RoundingMode roundingMode) {
+        int signum = Long.signum(a) * Long.signum(b);
+        long x = Math.abs(a);
+        long y = Math.abs(b);
+        long divisor = POWERS_OF_TEN[bScale];
+        long high = Math.unsignedMultiplyHigh(x, y);
+        long low = x * y;
+        long quotient;
+        if (high == 0 && low >= 0) {
+            quotient = low / divisor;
+        } else if (Long.compareUnsigned(high, divisor) < 0) {
+            quotient = divideUnsigned(high, low, divisor);
+        } else {
+            throw new ArithmeticException("Fixed point overflow.");
+        }
+        if (quotient < 0) {
+            throw new ArithmeticException("Fixed point overflow.");
+        }
+        long remainder = low - quotient * divisor;
+        long rounded = round(quotient, remainder, divisor, signum, roundingMode);
+        return signum < 0 ? -rounded : rounded;
+    }
+
+    static double multiplyToDouble(long a, int aScale, long b, int bScale, RoundingMode roundingMode) {
+        try {
+            return toDouble(multiply(a, b, bScale, roundingMode), aScale);
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(a, aScale).multiply(BigDecimal.valueOf(b, bScale))
+                    .setScale(aScale, roundingMode)
+                    .doubleValue();
+        }
+    }
+
+    private static boolean isHalfRounding(RoundingMode roundingMode) {
+        return roundingMode == RoundingMode.HALF_UP || roundingMode == RoundingMode.HALF_DOWN
+                || roundingMode == RoundingMode.HALF_EVEN;
+    }
+
+    /**
+     * Rounds the magnitude {@code quotient + remainder / divisor} of a value with the given sign.
+     */
+    private static long round(long quotient, long remainder, long divisor, int signum, RoundingMode roundingMode) {
+        if (remainder == 0) {
+            return quotient;
+        }
+        long doubledRemainder = remainder * 2;
+        boolean increment = switch (roundingMode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> signum > 0;
+            case FLOOR -> signum < 0;
+            case HALF_UP -> doubledRemainder >= divisor;
+            case HALF_DOWN -> doubledRemainder > divisor;
+            case HALF_EVEN -> doubledRemainder > divisor || (doubledRemainder == divisor && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary.");
+        };
+        return increment ? quotient + 1 : quotient;
+    }
+
+    /**
+     * Divides the unsigned 128-bit value {@code high:low} by {@code divisor}, requiring {@code high < divisor}
+     * (Hacker's Delight, divlu).
+     */
+    private static long divideUnsigned(long high, long low, long divisor) {
+        long base = 1L << 32;
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << shift;
+        long vHigh = v >>> 32;
+        long vLow = v & 0xFFFFFFFFL;
+        long uHigh = shift == 0 ? high : (high << shift) | (low >>> (64 - shift));
+        long uLow = low << shift;
+        long uLowHigh = uLow >>> 32;
+        long uLowLow = uLow & 0xFFFFFFFFL;
+
+        long q1 = Long.divideUnsigned(uHigh, vHigh);
+        long rhat = uHigh - q1 * vHigh;
+        while (Long.compareUnsigned(q1, base) >= 0
+                || Long.compareUnsigned(q1 * vLow, (rhat << 32) + uLowHigh) > 0) {
+            q1--;
+            rhat += vHigh;
+            if (Long.compareUnsigned(rhat, base) >= 0) {
+                break;
+            }
+        }
+        long middle = (uHigh << 32) + uLowHigh - q1 * v;
+        long q0 = Long.divideUnsigned(middle, vHigh);
+        rhat = middle - q0 * vHigh;
+        while (Long.compareUnsigned(q0, base) >= 0
+                || Long.compareUnsigned(q0 * vLow, (rhat << 32) + uLowLow) > 0) {
+            q0--;
+            rhat += vHigh;
+            if (Long.compareUnsigned(rhat, base) >= 0) {
+                break;
+            }
+        }
+        return (q1 << 32) | q0;
+    }
+}
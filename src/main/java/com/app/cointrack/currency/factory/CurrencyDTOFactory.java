@@ -1,16 +1,26 @@
 package com.app.cointrack.currency.factory;
 
 import com.app.cointrack.currency.dto.CurrencyResponseDTO;
-
-import java.util.Map;
+import com.app.cointrack.currency.dto.CurrencySearchResultDTO;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.resolver.CurrencyMatch;
 
 public class CurrencyDTOFactory {
     private CurrencyDTOFactory() {}
 
-    public static CurrencyResponseDTO create(Map.Entry<String, Map<String, Double>> currency) {
+    public static CurrencyResponseDTO create(CurrencyRates currency) {
         return CurrencyResponseDTO.builder()
-                .source(currency.getKey())
-                .rates(currency.getValue())
+                .source(currency.getSource())
+                .rates(currency)
+                .build();
+    }
+
+    public static CurrencySearchResultDTO create(CurrencyMatch match) {
+        return CurrencySearchResultDTO.builder()
+                .id(match.id())
+                .symbol(match.symbol())
+                .name(match.name())
+                .marketCapRank(match.marketCapRank())
                 .build();
     }
 }
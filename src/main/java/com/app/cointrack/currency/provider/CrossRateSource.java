@@ -0,0 +1,11 @@
+package com.app.cointrack.currency.provider;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+
+/**
+ * Source of cross rates: the rates of a single reference asset in every currency it is quoted in, from which
+ * the rate between any two of those currencies can be derived.
+ */
+public interface CrossRateSource {
+    CurrencyRates getReferenceRates();
+}
@@ -1,9 +1,37 @@
 package com.app.cointrack.currency.provider;
 
-import java.util.Map.Entry;
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.rate.CurrencyRates;
+
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public interface CurrencyProvider {
-    Entry<String, Map<String, Double>> getCurrency(String currency, Set<String> filters);
+    CurrencyRates getCurrency(String currency, Set<String> filters);
+
+    /**
+     * Non-blocking variant of {@link #getCurrency}. The default runs the blocking call on a virtual thread;
+     * implementations with a native asynchronous path should override it.
+     */
+    default CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        return CompletableFuture.supplyAsync(() -> getCurrency(currency, filters), Thread::startVirtualThread);
+    }
+
+    /**
+     * Returns rates of many currencies keyed by the requested currency. Unsupported currencies are left out of
+     * the result instead of failing the whole call.
+     */
+    default Map<String, CurrencyRates> getCurrencies(Set<String> currencies, Set<String> filters) {
+        Map<String, CurrencyRates> result = new HashMap<>(currencies.size() * 2);
+        for (String currency : currencies) {
+            try {
+                result.put(currency, getCurrency(currency, filters));
+            } catch (RequestValidationException e) {
+                // unsupported currencies are skipped
+            }
+        }
+        return result;
+    }
 }
@@ -0,0 +1,141 @@
+package com.app.cointrack.currency.provider.impl;
+
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects requests for different currencies arriving within {@code window} (or until {@code maxBatchSize}
+ * requests are waiting) and resolves them with a single {@link CurrencyProvider#getCurrencies} call.
+ * Requests without filters are passed through, as their result depends on the upstream defaults.
+ */
+@Slf4j
+public class BatchingCurrencyProvider implements CurrencyProvider {
+    private final CurrencyProvider delegate;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final Object lock = new Object();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedRequests = new LongAdder();
+    private List<PendingRequest> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public BatchingCurrencyProvider(CurrencyProvider delegate, Duration window, int maxBatchSize,
+                                    ScheduledExecutorService scheduler, Executor executor) {
+        this.delegate = delegate;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    @Override
+    public CurrencyRates getCurrency(String currency, Set<String> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return delegate.getCurrency(currency, filters);
+        }
+        return Futures.join(enqueue(currency, filters));
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return delegate.getCurrencyAsync(currency, filters);
+        }
+        return enqueue(currency, filters);
+    }
+
+    @Override
+    public Map<String, CurrencyRates> getCurrencies(Set<String> currencies, Set<String> filters) {
+        return delegate.getCurrencies(currencies, filters);
+    }
+
+    public BatchStats getStats() {
+        return new BatchStats(batches.sum(), batchedRequests.sum());
+    }
+
+    private CompletableFuture<CurrencyRates> enqueue(String currency, Set<String> filters) {
+        PendingRequest request = new PendingRequest(currency, filters, new CompletableFuture<>());
+        List<PendingRequest> fullBatch = null;
+        synchronized (lock) {
+            pending.add(request);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return request.result();
+    }
+
+    private void flush() {
+        List<PendingRequest> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(List<PendingRequest> batch) {
+        try {
+            executor.execute(() -> execute(batch));
+        } catch (RejectedExecutionException e) {
+            batch.forEach(request -> request.result().completeExceptionally(e));
+        }
+    }
+
+    private List<PendingRequest> takePending() {
+        List<PendingRequest> batch = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void execute(List<PendingRequest> batch) {
+        batches.increment();
+        batchedRequests.add(batch.size());
+        Set<String> currencies = new HashSet<>();
+        Set<String> filters = new HashSet<>();
+        for (PendingRequest request : batch) {
+            currencies.add(request.currency());
+            filters.addAll(request.filters());
+        }
+        Map<String, CurrencyRates> rates;
+        try {
+            rates = delegate.getCurrencies(currencies, filters);
+        } catch (RuntimeException e) {
+            batch.forEach(request -> request.result().completeExceptionally(e));
+            return;
+        }
+        for (PendingRequest request : batch) {
+            CurrencyRates currencyRates = rates.get(request.currency());
+            if (currencyRates == null) {
+                request.result().completeExceptionally(new RequestValidationException("Given Currency is not supported."));
+            } else {
+                request.result().complete(currencyRates.select(request.filters()));
+            }
+        }
+        log.debug("Resolved {} requests for {} currencies with a single upstream call.", batch.size(), currencies.size());
+    }
+
+    public record BatchStats(long batches, long batchedRequests) {}
+
+    private record PendingRequest(String currency, Set<String> filters,
+                                  CompletableFuture<CurrencyRates> result) {}
+}
@@ -0,0 +1,209 @@
+package com.app.cointrack.currency.provider.impl;
+
+import com.app.cointrack.common.exception.ExternalApiCommunicationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps rates per (source, target) pair. Entries younger than {@code ttl} are served as is, entries older than
+ * {@code ttl} but younger than {@code ttl + staleWhileRevalidate} are served while a single background refresh
+ * of the requested pairs is running. When fetching fails because upstream is unavailable, entries younger than
+ * {@code ttl + staleIfError} are served instead of the error.
+ */
+@Slf4j
+public class CachingCurrencyProvider implements CurrencyProvider {
+    private final CurrencyProvider delegate;
+    private final Executor refreshExecutor;
+    private final Ticker ticker;
+    private final long ttlNanos;
+    private final long staleWhileRevalidateNanos;
+    private final long staleIfErrorNanos;
+    private final Cache<RateKey, CachedRate> rates;
+    private final Set<RefreshKey> refreshesInProgress = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public CachingCurrencyProvider(CurrencyProvider delegate, Duration ttl, Duration staleWhileRevalidate,
+                                   Duration staleIfError, long maximumSize, Executor refreshExecutor) {
+        this(delegate, ttl, staleWhileRevalidate, staleIfError, maximumSize, refreshExecutor, Ticker.systemTicker());
+    }
+
+    public CachingCurrencyProvider(CurrencyProvider delegate, Duration ttl, Duration staleWhileRevalidate,
+                                   Duration staleIfError, long maximumSize, Executor refreshExecutor, Ticker ticker) {
+        this.delegate = delegate;
+        this.refreshExecutor = refreshExecutor;
+        this.ticker = ticker;
+        this.ttlNanos = ttl.toNanos();
+        this.staleWhileRevalidateNanos = staleWhileRevalidate.toNanos();
+        this.staleIfErrorNanos = staleIfError.toNanos();
+        Duration retention = staleWhileRevalidate.compareTo(staleIfError) >= 0 ? staleWhileRevalidate : staleIfError;
+        this.rates = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl.plus(retention))
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .removalListener((RateKey key, CachedRate value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public CurrencyRates getCurrency(String currency, Set<String> filters) {
+        CurrencyRates cached = lookup(currency, filters);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+        try {
+            return fetch(currency, filters);
+        } catch (ExternalApiCommunicationException e) {
+            return fallback(currency, filters, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        CurrencyRates cached = lookup(currency, filters);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        misses.increment();
+        long fetchedAt = ticker.read();
+        return delegate.getCurrencyAsync(currency, filters)
+                .handle((result, error) -> {
+                    if (error == null) {
+                        return store(currency, result, fetchedAt);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof ExternalApiCommunicationException e) {
+                        return fallback(currency, filters, e);
+                    }
+                    throw error instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(error);
+                });
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), staleHits.sum(), misses.sum(), evictions.sum(), fallbacks.sum(),
+                rates.estimatedSize());
+    }
+
+    private CurrencyRates lookup(String currency, Set<String> filters) {
+        CachedRate[] cachedRates = cached(currency, filters, ttlNanos + staleWhileRevalidateNanos);
+        if (cachedRates == null) {
+            return null;
+        }
+        long now = ticker.read();
+        boolean stale = false;
+        for (CachedRate cached : cachedRates) {
+            stale |= now - cached.fetchedAt() > ttlNanos;
+        }
+        if (stale) {
+            staleHits.increment();
+            scheduleRefresh(currency, filters);
+        } else {
+            hits.increment();
+        }
+        return toRates(cachedRates);
+    }
+
+    private CurrencyRates fallback(String currency, Set<String> filters, ExternalApiCommunicationException error) {
+        CachedRate[] cachedRates = cached(currency, filters, ttlNanos + staleIfErrorNanos);
+        if (cachedRates == null) {
+            throw error;
+        }
+        fallbacks.increment();
+        log.warn("Serving cached {} rates, upstream is unavailable: {}", currency, error.getMessage());
+        return toRates(cachedRates);
+    }
+
+    private CachedRate[] cached(String currency, Set<String> filters, long maxAgeNanos) {
+        if (filters == null || filters.isEmpty()) {
+            return null;
+        }
+        long now = ticker.read();
+        CachedRate[] cachedRates = new CachedRate[filters.size()];
+        int i = 0;
+        for (String filter : filters) {
+            CachedRate cached = rates.getIfPresent(new RateKey(currency, filter));
+            if (cached == null || now - cached.fetchedAt() > maxAgeNanos) {
+                return null;
+            }
+            cachedRates[i++] = cached;
+        }
+        return cachedRates;
+    }
+
+    private static CurrencyRates toRates(CachedRate[] cachedRates) {
+        CurrencyRates.Builder result = CurrencyRates.builder(cachedRates[0].source(), cachedRates.length);
+        long version = 0;
+        long snapshotFetchedAt = Long.MAX_VALUE;
+        for (CachedRate cached : cachedRates) {
+            result.add(cached.code(), cached.rate());
+            version = Math.max(version, cached.version());
+            snapshotFetchedAt = Math.min(snapshotFetchedAt, cached.snapshotFetchedAt());
+        }
+        return result.snapshot(version, snapshotFetchedAt).build();
+    }
+
+    private CurrencyRates fetch(String currency, Set<String> filters) {
+        long fetchedAt = ticker.read();
+        return store(currency, delegate.getCurrency(currency, filters), fetchedAt);
+    }
+
+    private CurrencyRates store(String currency, CurrencyRates result, long fetchedAt) {
+        for (int i = 0; i < result.size(); i++) {
+            rates.put(new RateKey(currency, result.targetAt(i)),
+                    new CachedRate(result.getSource(), result.codeAt(i), result.rateAt(i), fetchedAt,
+                            result.getVersion(), result.getFetchedAt()));
+        }
+        return result;
+    }
+
+    private void scheduleRefresh(String currency, Set<String> filters) {
+        RefreshKey key = new RefreshKey(currency, Set.copyOf(filters));
+        if (!refreshesInProgress.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    fetch(currency, key.filters());
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of {} rates failed.", currency, e);
+                } finally {
+                    refreshesInProgress.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshesInProgress.remove(key);
+            log.warn("Cannot schedule background refresh of {} rates.", currency, e);
+        }
+    }
+
+    public record CacheStats(long hits, long staleHits, long misses, long evictions, long fallbacks, long size) {}
+
+    private record RateKey(String currency, String target) {}
+
+    private record RefreshKey(String currency, Set<String> filters) {}
+
+    private record CachedRate(String source, int code, double rate, long fetchedAt, long version, long snapshotFetchedAt) {}
+}
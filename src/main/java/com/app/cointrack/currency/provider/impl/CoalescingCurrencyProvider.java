@@ -0,0 +1,96 @@
+package com.app.cointrack.currency.provider.impl;
+
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares a single upstream call between concurrent callers asking for the same currency when the filters
+ * of an in-flight call cover the requested ones. Every caller gets its own dependent future, so cancelling one
+ * does not affect the others.
+ */
+public class CoalescingCurrencyProvider implements CurrencyProvider {
+    private final CurrencyProvider delegate;
+    private final ConcurrentMap<String, List<InFlightRequest>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedRequests = new LongAdder();
+
+    public CoalescingCurrencyProvider(CurrencyProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CurrencyRates getCurrency(String currency, Set<String> filters) {
+        return Futures.join(getCurrencyAsync(currency, filters));
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        Set<String> requested = filters == null ? Set.of() : filters;
+        InFlightRequest[] joined = new InFlightRequest[1];
+        InFlightRequest own = new InFlightRequest(requested, new CompletableFuture<>());
+        inFlight.compute(currency, (key, requests) -> {
+            if (requests != null) {
+                for (InFlightRequest request : requests) {
+                    if (request.covers(requested)) {
+                        joined[0] = request;
+                        return requests;
+                    }
+                }
+            }
+            List<InFlightRequest> updated = requests == null ? new ArrayList<>(1) : new ArrayList<>(requests);
+            updated.add(own);
+            return updated;
+        });
+        if (joined[0] != null) {
+            coalescedRequests.increment();
+            return joined[0].result().thenApply(shared -> shared.select(requested));
+        }
+        CompletableFuture<CurrencyRates> upstream;
+        try {
+            upstream = delegate.getCurrencyAsync(currency, filters);
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        upstream.whenComplete((result, e) -> {
+            unregister(currency, own);
+            if (e != null) {
+                own.result().completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else {
+                own.result().complete(result);
+            }
+        });
+        return own.result().copy();
+    }
+
+    public long getCoalescedRequests() {
+        return coalescedRequests.sum();
+    }
+
+    private void unregister(String currency, InFlightRequest request) {
+        inFlight.computeIfPresent(currency, (key, requests) -> {
+            if (requests.size() == 1 && requests.getFirst() == request) {
+                return null;
+            }
+            List<InFlightRequest> updated = new ArrayList<>(requests);
+            updated.remove(request);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    private record InFlightRequest(Set<String> filters, CompletableFuture<CurrencyRates> result) {
+        boolean covers(Set<String> requested) {
+            if (filters.isEmpty() || requested.isEmpty()) {
+                return filters.isEmpty() && requested.isEmpty();
+            }
+            return filters.containsAll(requested);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.app.cointrack.currency.provider.impl;
+
+import com.app.cointrack.common.exception.ExternalApiCommunicationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans requests out to several providers. In {@link Mode#FIRST} providers are tried in order: the next one is
+ * called when the previous fails, or - hedging - when it has not answered within the {@code hedgePercentile}
+ * latency percentile of its recent successful calls; the first valid answer wins and the other calls are
+ * cancelled. In {@link Mode#MEDIAN} all providers are called at once and every rate is the median of the answers
+ * received within {@code medianTimeout}.
+ */
+public class CompositeCurrencyProvider implements CurrencyProvider {
+    public enum Mode { FIRST, MEDIAN }
+
+    private final List<CurrencyProvider> providers;
+    private final Mode mode;
+    private final ScheduledExecutorService scheduler;
+    private final List<LatencyTracker> latencies;
+    private final long minHedgeDelayNanos;
+    private final Duration medianTimeout;
+    private final LongAdder hedgedRequests = new LongAdder();
+
+    public CompositeCurrencyProvider(List<CurrencyProvider> providers, Mode mode, double hedgePercentile,
+                                     Duration initialHedgeDelay, Duration minHedgeDelay, Duration medianTimeout,
+                                     ScheduledExecutorService scheduler) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("Composite provider needs at least one provider.");
+        }
+        this.providers = List.copyOf(providers);
+        this.mode = mode;
+        this.scheduler = scheduler;
+        this.latencies = providers.stream()
+                .map(provider -> new LatencyTracker(hedgePercentile, initialHedgeDelay.toNanos()))
+                .toList();
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.medianTimeout = medianTimeout;
+    }
+
+    @Override
+    public CurrencyRates getCurrency(String currency, Set<String> filters) {
+        return Futures.join(getCurrencyAsync(currency, filters));
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        if (mode == Mode.MEDIAN) {
+            return median(currency, filters);
+        }
+        CompletableFuture<CurrencyRates> result = new CompletableFuture<>();
+        new HedgedRequest(currency, filters, result).next();
+        return result;
+    }
+
+    public long getHedgedRequests() {
+        return hedgedRequests.sum();
+    }
+
+    private CompletableFuture<CurrencyRates> median(String currency, Set<String> filters) {
+        List<CompletableFuture<CurrencyRates>> calls = providers.stream()
+                .map(provider -> call(provider, currency, filters))
+                .toList();
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .completeOnTimeout(null, medianTimeout.toNanos(), TimeUnit.NANOSECONDS)
+                .thenApply(ignored -> {
+                    calls.forEach(call -> call.cancel(false));
+                    return median(calls);
+                });
+    }
+
+    private static CurrencyRates median(List<CompletableFuture<CurrencyRates>> calls) {
+        List<CurrencyRates> answers = new ArrayList<>(calls.size());
+        RuntimeException firstError = null;
+        for (CompletableFuture<CurrencyRates> call : calls) {
+            if (call.state() == Future.State.SUCCESS && isValid(call.resultNow())) {
+                answers.add(call.resultNow());
+            } else if (firstError == null) {
+                firstError = errorOf(call);
+            }
+        }
+        if (answers.isEmpty()) {
+            throw firstError;
+        }
+        if (answers.size() == 1) {
+            return answers.getFirst();
+        }
+        Map<Integer, double[]> ratesByCode = new LinkedHashMap<>();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (CurrencyRates answer : answers) {
+            for (int i = 0; i < answer.size(); i++) {
+                int code = answer.codeAt(i);
+                double[] rates = ratesByCode.computeIfAbsent(code, key -> new double[answers.size()]);
+                rates[counts.merge(code, 1, Integer::sum) - 1] = answer.rateAt(i);
+            }
+        }
+        CurrencyRates.Builder result = CurrencyRates.builder(answers.getFirst().getSource(), ratesByCode.size())
+                .snapshot(answers.stream().mapToLong(CurrencyRates::getVersion).max().orElseThrow(),
+                        answers.stream().mapToLong(CurrencyRates::getFetchedAt).min().orElseThrow());
+        ratesByCode.forEach((code, rates) -> result.add(code, median(rates, counts.get(code))));
+        return result.build();
+    }
+
+    private static double median(double[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int middle = count / 2;
+        return count % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    private static CompletableFuture<CurrencyRates> call(CurrencyProvider provider, String currency, Set<String> filters) {
+        try {
+            return provider.getCurrencyAsync(currency, filters);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static boolean isValid(CurrencyRates rates) {
+        return rates != null && !rates.isEmpty();
+    }
+
+    private static RuntimeException errorOf(CompletableFuture<CurrencyRates> call) {
+        if (call.state() == Future.State.FAILED) {
+            Throwable error = call.exceptionNow();
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            if (error instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+        }
+        return new ExternalApiCommunicationException("No currency provider returned rates in time.");
+    }
+
+    /**
+     * One request in {@link Mode#FIRST}, issuing calls to the providers in order until one of them answers.
+     */
+    private final class HedgedRequest {
+        private final String currency;
+        private final Set<String> filters;
+        private final CompletableFuture<CurrencyRates> result;
+        private final List<CompletableFuture<CurrencyRates>> calls = new ArrayList<>();
+        private final RuntimeException[] errors = new RuntimeException[providers.size()];
+        private ScheduledFuture<?> hedge;
+        private int failed;
+
+        private HedgedRequest(String currency, Set<String> filters, CompletableFuture<CurrencyRates> result) {
+            this.currency = currency;
+            this.filters = filters;
+            this.result = result;
+            result.whenComplete((rates, error) -> cancelAll());
+        }
+
+        private synchronized void next() {
+            int index = calls.size();
+            if (result.isDone() || index == providers.size()) {
+                return;
+            }
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+            long start = System.nanoTime();
+            CompletableFuture<CurrencyRates> call = call(providers.get(index), currency, filters);
+            calls.add(call);
+            if (index + 1 < providers.size()) {
+                long delay = Math.max(minHedgeDelayNanos, latencies.get(index).percentile());
+                hedge = scheduler.schedule(this::hedge, delay, TimeUnit.NANOSECONDS);
+            }
+            call.whenComplete((rates, error) -> onComplete(index, System.nanoTime() - start, call));
+        }
+
+        private void hedge() {
+            if (!result.isDone()) {
+                hedgedRequests.increment();
+                next();
+            }
+        }
+
+        private void onComplete(int index, long latencyNanos, CompletableFuture<CurrencyRates> call) {
+            if (call.state() == Future.State.SUCCESS && isValid(call.resultNow())) {
+                latencies.get(index).record(latencyNanos);
+                result.complete(call.resultNow());
+                return;
+            }
+            if (call.isCancelled()) {
+                return;
+            }
+            boolean allFailed;
+            synchronized (this) {
+                errors[index] = errorOf(call);
+                allFailed = ++failed == providers.size();
+            }
+            if (allFailed) {
+                result.completeExceptionally(Arrays.stream(errors).filter(Objects::nonNull).findFirst().orElseThrow());
+            } else {
+                next();
+            }
+        }
+
+        private synchronized void cancelAll() {
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+            calls.forEach(call -> call.cancel(false));
+        }
+    }
+
+    /**
+     * Latencies of the last {@value #SAMPLES} successful calls of a provider. The percentile is recomputed every
+     * {@value #RECOMPUTE_INTERVAL} samples so reading it stays cheap; until {@value #MIN_SAMPLES} samples are
+     * recorded the initial value is used.
+     */
+    private static final class LatencyTracker {
+        private static final int SAMPLES = 512;
+        private static final int MIN_SAMPLES = 32;
+        private static final int RECOMPUTE_INTERVAL = 32;
+
+        private final long[] samples = new long[SAMPLES];
+        private final double percentile;
+        private int count;
+        private int next;
+        private volatile long current;
+
+        private LatencyTracker(double percentile, long initialNanos) {
+            this.percentile = percentile;
+            this.current = initialNanos;
+        }
+
+        private long percentile() {
+            return current;
+        }
+
+        private synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % SAMPLES;
+            count = Math.min(count + 1, SAMPLES);
+            if (count >= MIN_SAMPLES && next % RECOMPUTE_INTERVAL == 0) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                current = sorted[Math.min(count - 1, (int) Math.ceil(percentile / 100 * count) - 1)];
+            }
+        }
+    }
+}
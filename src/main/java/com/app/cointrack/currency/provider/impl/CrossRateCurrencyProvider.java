@@ -0,0 +1,175 @@
+package com.app.cointrack.currency.provider.impl;
+
+import com.app.cointrack.currency.provider.CrossRateSource;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Derives rates through a pivot currency instead of calling upstream for every combination of targets. Every
+ * upstream call also asks for the pivot and remembers the source's pivot rate; the cross rates between the pivot
+ * and every other target come from a {@link CrossRateSource} refreshed in the background every
+ * {@code refreshInterval}. A request is answered without upstream when the source's pivot rate and the cross
+ * rates of all requested targets are known and neither is older than {@code maxStaleness}.
+ */
+@Slf4j
+public class CrossRateCurrencyProvider implements CurrencyProvider {
+    private final CurrencyProvider delegate;
+    private final CrossRateSource crossRateSource;
+    private final String pivot;
+    private final long maxStalenessNanos;
+    private final long refreshIntervalNanos;
+    private final Executor refreshExecutor;
+    private final Ticker ticker;
+    private final Cache<String, PivotRate> pivotRates;
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private final LongAdder derivedRequests = new LongAdder();
+    private volatile CrossRates crossRates;
+
+    public CrossRateCurrencyProvider(CurrencyProvider delegate, CrossRateSource crossRateSource, String pivot,
+                                     Duration maxStaleness, Duration refreshInterval, long maximumSize,
+                                     Executor refreshExecutor) {
+        this(delegate, crossRateSource, pivot, maxStaleness, refreshInterval, maximumSize, refreshExecutor,
+                Ticker.systemTicker());
+    }
+
+    public CrossRateCurrencyProvider(CurrencyProvider delegate, CrossRateSource crossRateSource, String pivot,
+                                     Duration maxStaleness, Duration refreshInterval, long maximumSize,
+                                     Executor refreshExecutor, Ticker ticker) {
+        this.delegate = delegate;
+        this.crossRateSource = crossRateSource;
+        this.pivot = pivot;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.ticker = ticker;
+        this.pivotRates = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStaleness)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public CurrencyRates getCurrency(String currency, Set<String> filters) {
+        return Futures.join(getCurrencyAsync(currency, filters));
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        long now = ticker.read();
+        if (filters == null || filters.isEmpty()) {
+            return delegate.getCurrencyAsync(currency, filters)
+                    .thenApply(rates -> remember(currency, rates, now));
+        }
+        CurrencyRates derived = derive(currency, filters, now);
+        if (derived != null) {
+            derivedRequests.increment();
+            return CompletableFuture.completedFuture(derived);
+        }
+        Set<String> upstreamFilters = filters;
+        if (!filters.contains(pivot)) {
+            upstreamFilters = new HashSet<>(filters);
+            upstreamFilters.add(pivot);
+        }
+        return delegate.getCurrencyAsync(currency, upstreamFilters)
+                .thenApply(rates -> remember(currency, rates, now).select(filters));
+    }
+
+    public long getDerivedRequests() {
+        return derivedRequests.sum();
+    }
+
+    private CurrencyRates derive(String currency, Set<String> filters, long now) {
+        CrossRates cross = currentCrossRates(now);
+        PivotRate pivotRate = pivotRates.getIfPresent(currency);
+        if (cross == null || pivotRate == null || now - pivotRate.fetchedAt() > maxStalenessNanos) {
+            return null;
+        }
+        CurrencyRates.Builder result = CurrencyRates.builder(pivotRate.source(), filters.size())
+                .snapshot(Math.max(pivotRate.version(), cross.rates().getVersion()),
+                        Math.min(pivotRate.snapshotFetchedAt(), cross.rates().getFetchedAt()));
+        for (String target : filters) {
+            if (target.equals(pivot)) {
+                result.add(target, pivotRate.rate());
+                continue;
+            }
+            double crossRate = cross.rates().rate(target);
+            if (Double.isNaN(crossRate)) {
+                return null;
+            }
+            result.add(target, pivotRate.rate() * crossRate / cross.pivotRate());
+        }
+        return result.build();
+    }
+
+    private CurrencyRates remember(String currency, CurrencyRates rates, long fetchedAt) {
+        double rate = rates.rate(pivot);
+        if (!Double.isNaN(rate)) {
+            pivotRates.put(currency, new PivotRate(rates.getSource(), rate, fetchedAt, rates.getVersion(), rates.getFetchedAt()));
+        }
+        return rates;
+    }
+
+    /**
+     * Returns cross rates not older than {@code maxStaleness}, or {@code null}; schedules a refresh once they are
+     * older than {@code refreshInterval}.
+     */
+    private CrossRates currentCrossRates(long now) {
+        CrossRates current = crossRates;
+        if (current == null || now - current.fetchedAt() > refreshIntervalNanos) {
+            scheduleRefresh();
+            current = crossRates;
+        }
+        return current == null || now - current.fetchedAt() > maxStalenessNanos ? null : current;
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshInProgress.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshInProgress.set(false);
+            log.warn("Cannot schedule refresh of cross rates.", e);
+        }
+    }
+
+    private void refresh() {
+        long fetchedAt = ticker.read();
+        try {
+            CurrencyRates rates = crossRateSource.getReferenceRates();
+            double pivotRate = rates.rate(pivot);
+            if (Double.isNaN(pivotRate) || pivotRate <= 0) {
+                log.warn("Cross rates do not quote the pivot currency {}.", pivot);
+                return;
+            }
+            crossRates = new CrossRates(rates, pivotRate, fetchedAt);
+        } catch (RuntimeException e) {
+            log.warn("Refresh of cross rates failed.", e);
+        }
+    }
+
+    private record PivotRate(String source, double rate, long fetchedAt, long version, long snapshotFetchedAt) {}
+
+    private record CrossRates(CurrencyRates rates, double pivotRate, long fetchedAt) {}
+}
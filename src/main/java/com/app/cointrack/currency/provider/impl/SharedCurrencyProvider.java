@@ -0,0 +1,202 @@
+package com.app.cointrack.currency.provider.impl;
+
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.shared.SharedRateCache;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares fetched rates between application instances through a {@link SharedRateCache}, keyed per
+ * (source, target) pair. Leases are taken per pair too: on a miss, an instance fetches upstream only once it holds
+ * the leases of all requested targets. Instances whose targets overlap an in-flight fetch, including subsets of it,
+ * poll the shared tier for up to {@code maxWait} and take the leases over once they are released; after that wait
+ * they fetch on their own. Requests for other currencies or disjoint targets never wait on each other. When the
+ * shared tier fails, requests go straight upstream. Rates read from the shared tier keep the snapshot version of
+ * the instance that fetched them, so every instance serves the same ETag.
+ */
+@Slf4j
+public class SharedCurrencyProvider implements CurrencyProvider {
+    private static final String KEY_PREFIX = "cointrack:rate:";
+    private static final String LEASE_PREFIX = "cointrack:rate-lease:";
+
+    private final CurrencyProvider delegate;
+    private final SharedRateCache cache;
+    private final String owner = UUID.randomUUID().toString();
+    private final Duration ttl;
+    private final Duration leaseDuration;
+    private final long maxWaitNanos;
+    private final Executor pollExecutor;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder waitedHits = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public SharedCurrencyProvider(CurrencyProvider delegate, SharedRateCache cache, Duration ttl,
+                                  Duration leaseDuration, Duration maxWait, Duration pollInterval, Executor executor) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.ttl = ttl;
+        this.leaseDuration = leaseDuration;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.pollExecutor = CompletableFuture.delayedExecutor(pollInterval.toMillis(), TimeUnit.MILLISECONDS, executor);
+    }
+
+    @Override
+    public CurrencyRates getCurrency(String currency, Set<String> filters) {
+        return Futures.join(getCurrencyAsync(currency, filters));
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        if (filters == null || filters.isEmpty()) {
+            CompletableFuture<CurrencyRates> result = new CompletableFuture<>();
+            fetch(currency, filters, null, result);
+            return result;
+        }
+        CompletableFuture<CurrencyRates> result = new CompletableFuture<>();
+        List<String> targets = filters.stream().sorted().toList();
+        attempt(currency, targets, System.nanoTime() + maxWaitNanos, false, result);
+        return result;
+    }
+
+    public SharedStats getStats() {
+        return new SharedStats(hits.sum(), waitedHits.sum(), fetches.sum(), fallbacks.sum(), errors.sum());
+    }
+
+    private void attempt(String currency, List<String> targets, long deadline, boolean waited,
+                         CompletableFuture<CurrencyRates> result) {
+        try {
+            CurrencyRates shared = read(currency, targets);
+            if (shared != null) {
+                (waited ? waitedHits : hits).increment();
+                result.complete(shared);
+                return;
+            }
+            List<String> leases = tryAcquireLeases(currency, targets);
+            if (leases != null) {
+                fetches.increment();
+                fetch(currency, Set.copyOf(targets), leases, result);
+                return;
+            }
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.warn("Shared rate cache is unavailable, fetching {} rates directly.", currency, e);
+            fetch(currency, Set.copyOf(targets), null, result);
+            return;
+        }
+        if (System.nanoTime() - deadline >= 0) {
+            fallbacks.increment();
+            fetch(currency, Set.copyOf(targets), null, result);
+            return;
+        }
+        pollExecutor.execute(() -> attempt(currency, targets, deadline, true, result));
+    }
+
+    /**
+     * Takes the leases of all targets, or none of them when another instance holds any; leases are never held
+     * while waiting, so overlapping requests cannot block each other.
+     */
+    private List<String> tryAcquireLeases(String currency, List<String> targets) {
+        List<String> acquired = new ArrayList<>(targets.size());
+        for (String target : targets) {
+            String lease = lease(currency, target);
+            if (!cache.tryAcquireLease(lease, owner, leaseDuration)) {
+                acquired.forEach(held -> cache.releaseLease(held, owner));
+                return null;
+            }
+            acquired.add(lease);
+        }
+        return acquired;
+    }
+
+    private void fetch(String currency, Set<String> filters, List<String> leases,
+                       CompletableFuture<CurrencyRates> result) {
+        CompletableFuture<CurrencyRates> upstream;
+        try {
+            upstream = delegate.getCurrencyAsync(currency, filters);
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        upstream.whenComplete((rates, error) -> {
+            try {
+                if (error == null) {
+                    publish(currency, rates);
+                }
+                if (leases != null) {
+                    leases.forEach(lease -> cache.releaseLease(lease, owner));
+                }
+            } catch (RuntimeException e) {
+                errors.increment();
+                log.warn("Cannot share fetched {} rates.", currency, e);
+            }
+            if (error == null) {
+                result.complete(rates);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+    }
+
+    private CurrencyRates read(String currency, List<String> targets) {
+        List<String> keys = new ArrayList<>(targets.size());
+        for (String target : targets) {
+            keys.add(key(currency, target));
+        }
+        List<byte[]> values = cache.getAll(keys);
+        CurrencyRates.Builder builder = null;
+        long version = 0;
+        long fetchedAt = Long.MAX_VALUE;
+        for (int i = 0; i < targets.size(); i++) {
+            byte[] value = values.get(i);
+            if (value == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            double rate = buffer.getDouble();
+            version = Math.max(version, buffer.getLong());
+            fetchedAt = Math.min(fetchedAt, buffer.getLong());
+            if (builder == null) {
+                builder = CurrencyRates.builder(StandardCharsets.UTF_8.decode(buffer).toString(), targets.size());
+            }
+            builder.add(targets.get(i), rate);
+        }
+        return builder.snapshot(version, fetchedAt).build();
+    }
+
+    private void publish(String currency, CurrencyRates rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        byte[] source = rates.getSource().getBytes(StandardCharsets.UTF_8);
+        Map<String, byte[]> values = new HashMap<>(rates.size() * 2);
+        for (int i = 0; i < rates.size(); i++) {
+            values.put(key(currency, rates.targetAt(i)), ByteBuffer.allocate(24 + source.length)
+                    .putDouble(rates.rateAt(i))
+                    .putLong(rates.getVersion())
+                    .putLong(rates.getFetchedAt())
+                    .put(source)
+                    .array());
+        }
+        cache.putAll(values, ttl);
+    }
+
+    private static String lease(String currency, String target) {
+        return LEASE_PREFIX + currency + ":" + target;
+    }
+
+    private static String key(String currency, String target) {
+        return KEY_PREFIX + currency + ":" + target;
+    }
+
+    public record SharedStats(long hits, long waitedHits, long fetches, long fallbacks, long errors) {}
+}
@@ -0,0 +1,129 @@
+package com.app.cointrack.currency.provider.impl;
+
+import com.app.cointrack.common.exception.ExternalApiCommunicationException;
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.rate.RateTable;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves rates only from an immutable snapshot of the configured currencies, refreshed on a schedule and
+ * swapped atomically. Readers never call the upstream provider.
+ */
+@Slf4j
+public class SnapshotCurrencyProvider implements CurrencyProvider {
+    private final CurrencyProvider delegate;
+    private final List<Set<String>> currencyChunks;
+    private final Set<String> filters;
+    private final Clock clock;
+    private volatile RateSnapshot snapshot;
+    private volatile Duration lastRefreshDuration = Duration.ZERO;
+
+    public SnapshotCurrencyProvider(CurrencyProvider delegate, Set<String> currencies, Set<String> filters,
+                                    int chunkSize, Clock clock) {
+        this.delegate = delegate;
+        this.currencyChunks = chunk(currencies, chunkSize);
+        this.filters = Set.copyOf(filters);
+        this.clock = clock;
+    }
+
+    public void start(ScheduledExecutorService scheduler, Duration refreshInterval) {
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CurrencyRates getCurrency(String currency, Set<String> filters) {
+        CurrencyRates rates = currentSnapshot().rates().get(currency, filters);
+        if (rates == null) {
+            throw new RequestValidationException("Given Currency is not supported.");
+        }
+        return rates;
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+        try {
+            return CompletableFuture.completedFuture(getCurrency(currency, filters));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public Map<String, CurrencyRates> getCurrencies(Set<String> currencies, Set<String> filters) {
+        RateTable rates = currentSnapshot().rates();
+        Map<String, CurrencyRates> result = new HashMap<>(currencies.size() * 2);
+        for (String currency : currencies) {
+            CurrencyRates currencyRates = rates.get(currency, filters);
+            if (currencyRates != null) {
+                result.put(currency, currencyRates);
+            }
+        }
+        return result;
+    }
+
+    public void refresh() {
+        long start = System.nanoTime();
+        List<CurrencyRates> rates = new ArrayList<>();
+        for (Set<String> chunk : currencyChunks) {
+            rates.addAll(delegate.getCurrencies(chunk, filters).values());
+        }
+        snapshot = new RateSnapshot(RateTable.of(rates), clock.instant());
+        lastRefreshDuration = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Refreshed rates snapshot of {} currencies in {} ms.", rates.size(), lastRefreshDuration.toMillis());
+    }
+
+    public Optional<Duration> getSnapshotAge() {
+        RateSnapshot current = snapshot;
+        return current == null
+                ? Optional.empty()
+                : Optional.of(Duration.between(current.fetchedAt(), clock.instant()));
+    }
+
+    public Duration getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Cannot refresh rates snapshot, serving the previous one.", e);
+        }
+    }
+
+    private RateSnapshot currentSnapshot() {
+        RateSnapshot current = snapshot;
+        if (current == null) {
+            throw new ExternalApiCommunicationException("Rates snapshot is not available yet.");
+        }
+        return current;
+    }
+
+    private static List<Set<String>> chunk(Set<String> currencies, int chunkSize) {
+        List<Set<String>> chunks = new ArrayList<>();
+        Set<String> chunk = new HashSet<>();
+        for (String currency : currencies) {
+            chunk.add(currency);
+            if (chunk.size() == chunkSize) {
+                chunks.add(Set.copyOf(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(Set.copyOf(chunk));
+        }
+        return List.copyOf(chunks);
+    }
+
+    private record RateSnapshot(RateTable rates, Instant fetchedAt) {}
+}
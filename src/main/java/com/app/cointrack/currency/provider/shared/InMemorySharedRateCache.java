@@ -0,0 +1,90 @@
+package com.app.cointrack.currency.provider.shared;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Embedded {@link SharedRateCache} shared only by the providers of one process. It is meant for tests and
+ * single-instance deployments. Expired entries are dropped when they are read, and expired entries and leases are
+ * swept on writes at most once per {@value #SWEEP_INTERVAL_MILLIS} ms, so keys that are never read again do not
+ * accumulate.
+ */
+public class InMemorySharedRateCache implements SharedRateCache {
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final AtomicLong sweptAt;
+
+    public InMemorySharedRateCache() {
+        this(System::currentTimeMillis);
+    }
+
+    public InMemorySharedRateCache(LongSupplier clock) {
+        this.clock = clock;
+        this.sweptAt = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    public List<byte[]> getAll(List<String> keys) {
+        long now = clock.getAsLong();
+        List<byte[]> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() <= now) {
+                entries.remove(key, entry);
+                entry = null;
+            }
+            values.add(entry == null ? null : entry.value());
+        }
+        return values;
+    }
+
+    @Override
+    public void putAll(Map<String, byte[]> values, Duration ttl) {
+        long now = clock.getAsLong();
+        long expiresAt = now + ttl.toMillis();
+        values.forEach((key, value) -> entries.put(key, new Entry(value, expiresAt)));
+        sweep(now);
+    }
+
+    @Override
+    public boolean tryAcquireLease(String lease, String owner, Duration duration) {
+        long now = clock.getAsLong();
+        Lease acquired = new Lease(owner, now + duration.toMillis());
+        return leases.merge(lease, acquired, (current, requested) ->
+                current.expiresAt() <= now || current.owner().equals(owner) ? requested : current) == acquired;
+    }
+
+    @Override
+    public void releaseLease(String lease, String owner) {
+        leases.computeIfPresent(lease, (key, current) -> current.owner().equals(owner) ? null : current);
+    }
+
+    /**
+     * Returns the number of stored entries, including expired ones that were not swept yet.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void sweep(long now) {
+        long last = sweptAt.get();
+        if (now - last < SWEEP_INTERVAL_MILLIS || !sweptAt.compareAndSet(last, now)) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        leases.values().removeIf(lease -> lease.expiresAt() <= now);
+    }
+
+    private record Entry(byte[] value, long expiresAt) {}
+
+    private record Lease(String owner, long expiresAt) {}
+}
@@ -0,0 +1,34 @@
+package com.app.cointrack.currency.provider.shared;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache tier shared by all application instances, for example a Redis or Hazelcast cluster. Values are opaque
+ * bytes that expire after their time to live. Leases are named, expiring locks used to elect the single instance
+ * that refreshes a value; a lease can be taken again once its holder releases it or it expires.
+ */
+public interface SharedRateCache {
+    /**
+     * Returns the values of the keys in key order, {@code null} for missing or expired ones.
+     */
+    List<byte[]> getAll(List<String> keys);
+
+    void putAll(Map<String, byte[]> values, Duration ttl);
+
+    default byte[] get(String key) {
+        return getAll(List.of(key)).getFirst();
+    }
+
+    default void put(String key, byte[] value, Duration ttl) {
+        putAll(Map.of(key, value), ttl);
+    }
+
+    boolean tryAcquireLease(String lease, String owner, Duration duration);
+
+    /**
+     * Releases the lease when it is still held by {@code owner}.
+     */
+    void releaseLease(String lease, String owner);
+}
@@ -0,0 +1,67 @@
+package com.app.cointrack.currency.rate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process wide index of target currency codes. Codes are interned when they are first seen in an upstream
+ * response, so the index stays as small as the upstream vocabulary; lookups of unknown codes never grow it.
+ */
+public final class CurrencyCodes {
+    public static final int UNKNOWN = -1;
+
+    private static final ConcurrentMap<String, Integer> INDEX = new ConcurrentHashMap<>();
+    private static volatile String[] codes = new String[64];
+    private static int size;
+
+    private CurrencyCodes() {}
+
+    public static int indexOf(String code) {
+        Integer index = INDEX.get(code);
+        return index == null ? UNKNOWN : index;
+    }
+
+    public static int intern(String code) {
+        Integer index = INDEX.get(code);
+        if (index != null) {
+            return index;
+        }
+        synchronized (CurrencyCodes.class) {
+            index = INDEX.get(code);
+            if (index != null) {
+                return index;
+            }
+            String[] current = codes;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[size] = code;
+            codes = current;
+            INDEX.put(code, size);
+            return size++;
+        }
+    }
+
+    public static String code(int index) {
+        return codes[index];
+    }
+
+    /**
+     * Lowercases requested target codes to the form upstream responses are interned in; {@code null} and empty
+     * sets are returned as they are.
+     */
+    public static Set<String> normalize(Set<String> targets) {
+        if (targets == null || targets.isEmpty()) {
+            return targets;
+        }
+        Set<String> normalized = new HashSet<>(targets.size() * 2);
+        for (String target : targets) {
+            normalized.add(target.toLowerCase(Locale.ROOT));
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,224 @@
+package com.app.cointrack.currency.rate;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable rates of a single source currency, stored as interned target codes and primitive rates.
+ * Instances may be views over a slice of larger arrays (for example a {@link RateTable} row).
+ * <p>
+ * Every fetched snapshot gets a new version, greater than the version of any snapshot fetched before it, and
+ * remembers when it was fetched. Rates combined from several snapshots carry the greatest version and the oldest
+ * fetch time of their parts, so the version changes whenever any part does. Versions are seeded from the clock
+ * and keep growing across restarts.
+ */
+@JsonSerialize(using = CurrencyRatesSerializer.class)
+public final class CurrencyRates {
+    private static final AtomicLong VERSIONS = new AtomicLong(System.currentTimeMillis() << 20);
+
+    private final String source;
+    private final int[] codes;
+    private final double[] rates;
+    private final int offset;
+    private final int size;
+    private final long version;
+    private final long fetchedAt;
+
+    CurrencyRates(String source, int[] codes, double[] rates, int offset, int size, long version, long fetchedAt) {
+        this.source = source;
+        this.codes = codes;
+        this.rates = rates;
+        this.offset = offset;
+        this.size = size;
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public static CurrencyRates of(String source, Map<String, Double> rates) {
+        Builder builder = builder(source, rates.size());
+        rates.forEach((target, rate) -> {
+            if (rate != null) {
+                builder.add(target, rate);
+            }
+        });
+        return builder.build();
+    }
+
+    public static Builder builder(String source, int expectedSize) {
+        return new Builder(source, expectedSize);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the epoch millis when the rates were fetched.
+     */
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String targetAt(int i) {
+        return CurrencyCodes.code(codes[i]);
+    }
+
+    public int codeAt(int i) {
+        return codes[i];
+    }
+
+    public double rateAt(int i) {
+        return rates[offset + i];
+    }
+
+    public int indexOf(String target) {
+        int code = CurrencyCodes.indexOf(target);
+        if (code == CurrencyCodes.UNKNOWN) {
+            return -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (codes[i] == code) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String target) {
+        return indexOf(target) >= 0;
+    }
+
+    public double rate(String target) {
+        int i = indexOf(target);
+        return i < 0 ? Double.NaN : rates[offset + i];
+    }
+
+    /**
+     * Returns rates of the given targets only. Targets without a rate are skipped; empty or covering filters
+     * return this instance.
+     */
+    public CurrencyRates select(Set<String> targets) {
+        if (targets == null || targets.isEmpty()) {
+            return this;
+        }
+        Builder builder = builder(source, Math.min(targets.size(), size)).snapshot(version, fetchedAt);
+        for (String target : targets) {
+            int i = indexOf(target);
+            if (i >= 0) {
+                builder.add(codes[i], rates[offset + i]);
+            }
+        }
+        return builder.size == size ? this : builder.build();
+    }
+
+    public Map<String, Double> asMap() {
+        Map<String, Double> map = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(targetAt(i), rateAt(i));
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CurrencyRates other) || !source.equals(other.source) || size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            int j = other.indexOf(targetAt(i));
+            if (j < 0 || Double.compare(rateAt(i), other.rateAt(j)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = source.hashCode();
+        for (int i = 0; i < size; i++) {
+            hash += codes[i] ^ Double.hashCode(rateAt(i));
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CurrencyRates{source=" + source + ", rates=" + asMap() + "}";
+    }
+
+    public static final class Builder {
+        private final String source;
+        private int[] codes;
+        private double[] rates;
+        private int size;
+        private long version = -1;
+        private long fetchedAt;
+
+        private Builder(String source, int expectedSize) {
+            this.source = source;
+            this.codes = new int[Math.max(expectedSize, 1)];
+            this.rates = new double[codes.length];
+        }
+
+        /**
+         * Marks the rates as part of an existing snapshot; without it {@link #build()} starts a new snapshot.
+         */
+        public Builder snapshot(long version, long fetchedAt) {
+            this.version = version;
+            this.fetchedAt = fetchedAt;
+            return this;
+        }
+
+        public Builder add(String target, double rate) {
+            return add(CurrencyCodes.intern(target), rate);
+        }
+
+        public Builder add(int code, double rate) {
+            if (Double.isNaN(rate)) {
+                return this;
+            }
+            for (int i = 0; i < size; i++) {
+                if (codes[i] == code) {
+                    rates[i] = rate;
+                    return this;
+                }
+            }
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+            codes[size] = code;
+            rates[size] = rate;
+            size++;
+            return this;
+        }
+
+        public CurrencyRates build() {
+            if (version < 0) {
+                return new CurrencyRates(source, codes, rates, 0, size, VERSIONS.incrementAndGet(), System.currentTimeMillis());
+            }
+            return new CurrencyRates(source, codes, rates, 0, size, version, fetchedAt);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.app.cointrack.currency.rate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class CurrencyRatesSerializer extends StdSerializer<CurrencyRates> {
+    public CurrencyRatesSerializer() {
+        super(CurrencyRates.class);
+    }
+
+    @Override
+    public void serialize(CurrencyRates rates, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(rates, rates.size());
+        for (int i = 0; i < rates.size(); i++) {
+            generator.writeFieldName(rates.targetAt(i));
+            generator.writeNumber(rates.rateAt(i));
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, CurrencyRates rates) {
+        return rates.isEmpty();
+    }
+}
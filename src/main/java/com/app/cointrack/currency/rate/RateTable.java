@@ -0,0 +1,97 @@
+package com.app.cointrack.currency.rate;
+
+import java.util.*;
+
+/**
+ * Immutable dense matrix of rates, one row per source currency and one column per target currency code.
+ * Missing rates are stored as {@code NaN}. Full rows are exposed as {@link CurrencyRates} views built once
+ * together with the table, so reading them does not allocate.
+ */
+public final class RateTable {
+    private static final RateTable EMPTY = new RateTable(Map.of(), new int[0], new double[0], new CurrencyRates[0]);
+
+    private final Map<String, Integer> rowIndex;
+    private final int[] columnCodes;
+    private final double[] values;
+    private final CurrencyRates[] rows;
+
+    private RateTable(Map<String, Integer> rowIndex, int[] columnCodes, double[] values, CurrencyRates[] rows) {
+        this.rowIndex = rowIndex;
+        this.columnCodes = columnCodes;
+        this.values = values;
+        this.rows = rows;
+    }
+
+    public static RateTable empty() {
+        return EMPTY;
+    }
+
+    public static RateTable of(Collection<CurrencyRates> currencies) {
+        Map<Integer, Integer> columnOf = new LinkedHashMap<>();
+        for (CurrencyRates rates : currencies) {
+            for (int i = 0; i < rates.size(); i++) {
+                columnOf.putIfAbsent(rates.codeAt(i), columnOf.size());
+            }
+        }
+        int columns = columnOf.size();
+        int[] columnCodes = new int[columns];
+        columnOf.forEach((code, column) -> columnCodes[column] = code);
+
+        double[] values = new double[currencies.size() * columns];
+        Arrays.fill(values, Double.NaN);
+        Map<String, Integer> rowIndex = new HashMap<>(currencies.size() * 2);
+        CurrencyRates[] rows = new CurrencyRates[currencies.size()];
+        int row = 0;
+        for (CurrencyRates rates : currencies) {
+            int offset = row * columns;
+            for (int i = 0; i < rates.size(); i++) {
+                values[offset + columnOf.get(rates.codeAt(i))] = rates.rateAt(i);
+            }
+            rows[row] = rates.size() == columns
+                    ? new CurrencyRates(rates.getSource(), columnCodes, values, offset, columns,
+                            rates.getVersion(), rates.getFetchedAt())
+                    : rates;
+            rowIndex.put(rates.getSource(), row);
+            row++;
+        }
+        return new RateTable(Map.copyOf(rowIndex), columnCodes, values, rows);
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public boolean contains(String source) {
+        return rowIndex.containsKey(source);
+    }
+
+    /**
+     * Returns rates of the source currency for the given targets, or {@code null} when the source is not part
+     * of the table.
+     */
+    public CurrencyRates get(String source, Set<String> targets) {
+        Integer row = rowIndex.get(source);
+        if (row == null) {
+            return null;
+        }
+        return rows[row].select(targets);
+    }
+
+    public double rate(String source, String target) {
+        Integer row = rowIndex.get(source);
+        int column = columnOf(CurrencyCodes.indexOf(target));
+        return row == null || column < 0 ? Double.NaN : values[row * columnCodes.length + column];
+    }
+
+    private int columnOf(int code) {
+        if (code == CurrencyCodes.UNKNOWN) {
+            return -1;
+        }
+        for (int column = 0; column < columnCodes.length; column++) {
+            if (columnCodes[column] == code) {
+                return column;
+            }
+        }
+        return -1;
+    }
+}
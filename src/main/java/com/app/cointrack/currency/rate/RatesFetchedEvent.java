@@ -0,0 +1,9 @@
+package com.app.cointrack.currency.rate;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Published whenever fresh rates are fetched from an upstream API.
+ */
+public record RatesFetchedEvent(Collection<CurrencyRates> rates, Instant fetchedAt) {}
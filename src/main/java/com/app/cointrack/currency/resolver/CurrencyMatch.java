@@ -0,0 +1,3 @@
+package com.app.cointrack.currency.resolver;
+
+public record CurrencyMatch(String id, String symbol, String name, Integer marketCapRank) {}
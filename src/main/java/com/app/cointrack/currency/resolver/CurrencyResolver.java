@@ -0,0 +1,31 @@
+package com.app.cointrack.currency.resolver;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolves currencies given by id, symbol or name to their canonical ids.
+ */
+public interface CurrencyResolver {
+    /**
+     * Returns the canonical id of the given currency, or the currency itself when it cannot be resolved.
+     */
+    String resolve(String currency);
+
+    /**
+     * Non-blocking variant of {@link #resolve}. The default resolves right away; implementations whose currencies
+     * load asynchronously should override it.
+     */
+    default CompletableFuture<String> resolveAsync(String currency) {
+        try {
+            return CompletableFuture.completedFuture(resolve(currency));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} currencies whose id, symbol or name starts with the given query, most relevant first.
+     */
+    List<CurrencyMatch> search(String query, int limit);
+}
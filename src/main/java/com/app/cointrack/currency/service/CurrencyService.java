@@ -1,12 +1,19 @@
 package com.app.cointrack.currency.service;
 
-import com.app.cointrack.currency.dto.CurrencyResponseDTO;
+import com.app.cointrack.currency.dto.BulkExchangeResultDTO;
+import com.app.cointrack.currency.dto.CurrencySearchResultDTO;
+import com.app.cointrack.currency.dto.ExchangeRequestDTO;
 import com.app.cointrack.currency.dto.ExchangeResultDTO;
+import com.app.cointrack.currency.rate.CurrencyRates;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface CurrencyService {
-    CurrencyResponseDTO getCurrency(String currency, Set<String> filters);
-    List<ExchangeResultDTO> exchangeCurrencies(String from, Set<String> to, double amount);
+    CompletableFuture<CurrencyRates> getCurrency(String currency, Set<String> filters);
+    CompletableFuture<List<ExchangeResultDTO>> exchangeCurrencies(String from, Set<String> to, double amount);
+    CompletableFuture<Void> exchangeCurrenciesBulk(List<ExchangeRequestDTO> items, Consumer<BulkExchangeResultDTO> resultConsumer);
+    List<CurrencySearchResultDTO> searchCurrencies(String query, int limit);
 }
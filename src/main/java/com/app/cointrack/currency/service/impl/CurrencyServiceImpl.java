@@ -1,51 +1,143 @@
 package com.app.cointrack.currency.service.impl;
 
-import com.app.cointrack.currency.dto.CurrencyResponseDTO;
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.dto.BulkExchangeResultDTO;
+import com.app.cointrack.currency.dto.CurrencySearchResultDTO;
+import com.app.cointrack.currency.dto.ExchangeRequestDTO;
 import com.app.cointrack.currency.dto.ExchangeResultDTO;
+import com.app.cointrack.currency.exchange.ExchangeEngine;
 import com.app.cointrack.currency.factory.CurrencyDTOFactory;
 import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyCodes;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.resolver.CurrencyResolver;
 import com.app.cointrack.currency.service.CurrencyService;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 @Service
-@AllArgsConstructor
 public class CurrencyServiceImpl implements CurrencyService {
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final CurrencyProvider dataProvider;
+    private final CurrencyResolver currencyResolver;
+    private final ExchangeEngine exchangeEngine;
+    private final MeterRegistry meterRegistry;
+    private final Timer singleComputationTimer;
+    private final Timer bulkComputationTimer;
+
+    public CurrencyServiceImpl(CurrencyProvider dataProvider, CurrencyResolver currencyResolver,
+                               ExchangeEngine exchangeEngine, MeterRegistry meterRegistry) {
+        this.dataProvider = dataProvider;
+        this.currencyResolver = currencyResolver;
+        this.exchangeEngine = exchangeEngine;
+        this.meterRegistry = meterRegistry;
+        this.singleComputationTimer = computationTimer("single", meterRegistry);
+        this.bulkComputationTimer = computationTimer("bulk", meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<CurrencyRates> getCurrency(String currency, Set<String> filters) {
+        return fetch(currency, CurrencyCodes.normalize(filters));
+    }
+
+    @Override
+    public CompletableFuture<List<ExchangeResultDTO>> exchangeCurrencies(String from, Set<String> to, double amount) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return fetch(from, CurrencyCodes.normalize(to))
+                .thenApply(currencies -> exchange(currencies, amount, singleComputationTimer))
+                .whenComplete((results, error) -> sample.stop(Timer.builder("cointrack.exchange.requests")
+                        .description("Exchange requests including fetching of rates")
+                        .tag("outcome", error == null ? "SUCCESS" : unwrap(error).getClass().getSimpleName())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+    }
 
+    /**
+     * Groups items by their resolved source so every source is fetched once for the union of its targets; the
+     * provider chain batches those fetches further. Results are handed over per source as soon as it completes,
+     * items whose source cannot be resolved right away with their error.
+     */
     @Override
-    public CurrencyResponseDTO getCurrency(String currency, Set<String> filters) {
-        Entry<String, Map<String, Double>> results = dataProvider.getCurrency(currency, filters);
-        return CurrencyDTOFactory.create(results);
+    public CompletableFuture<Void> exchangeCurrenciesBulk(List<ExchangeRequestDTO> items, Consumer<BulkExchangeResultDTO> resultConsumer) {
+        Map<String, List<Integer>> itemsBySource = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            String source;
+            try {
+                source = currencyResolver.resolve(items.get(i).getFrom());
+            } catch (RuntimeException e) {
+                resultConsumer.accept(bulkExchange(i, items.get(i), null, e));
+                continue;
+            }
+            itemsBySource.computeIfAbsent(source, key -> new ArrayList<>()).add(i);
+        }
+        return CompletableFuture.allOf(itemsBySource.entrySet().stream()
+                .map(entry -> {
+                    Set<String> targets = new HashSet<>();
+                    entry.getValue().forEach(i -> targets.addAll(CurrencyCodes.normalize(items.get(i).getTo())));
+                    return dataProvider.getCurrencyAsync(entry.getKey(), targets)
+                            .handle((currencies, error) -> {
+                                entry.getValue().forEach(i -> resultConsumer.accept(bulkExchange(i, items.get(i), currencies, error)));
+                                return null;
+                            });
+                })
+                .toArray(CompletableFuture[]::new));
     }
 
     @Override
-    public List<ExchangeResultDTO> exchangeCurrencies(String from, Set<String> to, double amount) {
-        Entry<String, Map<String, Double>> currencies = dataProvider.getCurrency(from, to);
-        BigDecimal feeRate = BigDecimal.valueOf(0.01);
-        return currencies.getValue().entrySet()
-                .parallelStream()
-                .map(entry -> performExchange(BigDecimal.valueOf(amount), feeRate, entry))
+    public List<CurrencySearchResultDTO> searchCurrencies(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new RequestValidationException("Search query must not be blank.");
+        }
+        return currencyResolver.search(query, Math.clamp(limit, 1, MAX_SEARCH_LIMIT)).stream()
+                .map(CurrencyDTOFactory::create)
                 .toList();
     }
 
-    private ExchangeResultDTO performExchange(BigDecimal amount, BigDecimal feeRate, Entry<String, Double> to) {
-        BigDecimal fee = amount.multiply(feeRate);
-        BigDecimal amountAfterFee = amount.subtract(fee);
-        BigDecimal exchangeRate = BigDecimal.valueOf(to.getValue());
-        BigDecimal finalAmount = amountAfterFee.multiply(exchangeRate);
-        return ExchangeResultDTO.builder()
-                .to(to.getKey())
-                .rate(exchangeRate.doubleValue())
-                .amount(amount.doubleValue())
-                .result(finalAmount.doubleValue())
-                .fee(fee.doubleValue())
-                .build();
+    /**
+     * Fetches rates once the currency is resolved; when it already is, the provider's future is returned as it is,
+     * so cancelling the request still reaches the provider chain.
+     */
+    private CompletableFuture<CurrencyRates> fetch(String currency, Set<String> targets) {
+        CompletableFuture<String> source = currencyResolver.resolveAsync(currency);
+        if (source.state() == Future.State.SUCCESS) {
+            return dataProvider.getCurrencyAsync(source.resultNow(), targets);
+        }
+        return source.thenCompose(resolved -> dataProvider.getCurrencyAsync(resolved, targets));
+    }
+
+    private BulkExchangeResultDTO bulkExchange(int index, ExchangeRequestDTO item, CurrencyRates currencies, Throwable error) {
+        BulkExchangeResultDTO.BulkExchangeResultDTOBuilder result = BulkExchangeResultDTO.builder()
+                .index(index)
+                .from(item.getFrom());
+        if (error != null) {
+            return result.error(unwrap(error).getMessage()).build();
+        }
+        Map<String, ExchangeResultDTO> results = new LinkedHashMap<>();
+        exchange(currencies.select(CurrencyCodes.normalize(item.getTo())), item.getAmount(), bulkComputationTimer).forEach(exchange -> results.put(exchange.getTo(), exchange));
+        return result.results(results).build();
+    }
+
+    private List<ExchangeResultDTO> exchange(CurrencyRates currencies, double amount, Timer computationTimer) {
+        return computationTimer.record(() -> exchangeEngine.exchange(currencies, amount));
+    }
+
+    private static Timer computationTimer(String type, MeterRegistry meterRegistry) {
+        return Timer.builder("cointrack.exchange.computation")
+                .description("Computation of exchange results from fetched rates")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 }
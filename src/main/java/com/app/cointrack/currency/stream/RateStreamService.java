@@ -0,0 +1,190 @@
+package com.app.cointrack.currency.stream;
+
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyCodes;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.resolver.CurrencyResolver;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes rate updates to subscribers over server-sent events. Subscriptions are grouped into one topic per source
+ * currency, and a single refresh loop fetches every topic once per {@code refreshInterval} with the union of its
+ * subscribers' targets. Each result is fanned out to the subscribers whose rates moved by more than their
+ * threshold. Sends run on virtual threads, and a slow subscriber holds at most one pending update, which newer
+ * updates replace.
+ */
+@Slf4j
+@Service
+public class RateStreamService {
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("rate-stream").daemon().factory());
+    private final ExecutorService sendExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rate-stream-send-", 0).factory());
+    private final ConcurrentMap<String, RateTopic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final CurrencyProvider dataProvider;
+    private final CurrencyResolver currencyResolver;
+    private final MeterRegistry meterRegistry;
+    private final Duration refreshInterval;
+    private final long heartbeatIntervalNanos;
+    private final Duration timeout;
+    private final int maxSubscriptions;
+    private final int maxTargets;
+
+    public RateStreamService(CurrencyProvider dataProvider, CurrencyResolver currencyResolver,
+                             MeterRegistry meterRegistry,
+                             @Value("${cointrack.stream.refresh-interval}") Duration refreshInterval,
+                             @Value("${cointrack.stream.heartbeat-interval}") Duration heartbeatInterval,
+                             @Value("${cointrack.stream.timeout}") Duration timeout,
+                             @Value("${cointrack.stream.max-subscriptions}") int maxSubscriptions,
+                             @Value("${cointrack.stream.max-targets}") int maxTargets) {
+        this.dataProvider = dataProvider;
+        this.currencyResolver = currencyResolver;
+        this.meterRegistry = meterRegistry;
+        this.refreshInterval = refreshInterval;
+        this.heartbeatIntervalNanos = heartbeatInterval.toNanos();
+        this.timeout = timeout;
+        this.maxSubscriptions = maxSubscriptions;
+        this.maxTargets = maxTargets;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("cointrack.stream.subscriptions", subscriptions, AtomicInteger::get)
+                .description("Open rate stream subscriptions")
+                .register(meterRegistry);
+        Gauge.builder("cointrack.stream.topics", topics, ConcurrentMap::size)
+                .description("Source currencies refreshed for rate stream subscribers")
+                .register(meterRegistry);
+        scheduler.scheduleAtFixedRate(this::refreshAll, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Subscribes to rates of {@code currency} in {@code targets}, pushed when any of them changes by more than
+     * {@code threshold} relative to the last pushed value. The current rates are pushed right away; when the
+     * source has no rates yet and fetching them fails, the subscription ends with that error.
+     */
+    public SseEmitter subscribe(String currency, Set<String> filters, double threshold) {
+        Set<String> targets = CurrencyCodes.normalize(filters);
+        if (targets == null || targets.isEmpty() || targets.size() > maxTargets) {
+            throw new RequestValidationException("Between 1 and " + maxTargets + " filters are required.");
+        }
+        if (!(threshold >= 0 && threshold < 1)) {
+            throw new RequestValidationException("Threshold must be at least 0 and below 1.");
+        }
+        String source = currencyResolver.resolve(currency);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        RateSubscription subscription = new RateSubscription(emitter, targets, threshold, sendExecutor, System.nanoTime());
+        if (subscriptions.incrementAndGet() > maxSubscriptions) {
+            subscriptions.decrementAndGet();
+            throw new RequestValidationException("Too many rate subscriptions, try again later.");
+        }
+        RateTopic topic = topics.compute(source, (key, existing) -> {
+            RateTopic current = existing == null ? new RateTopic(key) : existing;
+            current.subscribers.add(subscription);
+            return current;
+        });
+        subscription.onClose(() -> unsubscribe(topic, subscription));
+        try {
+            CurrencyRates latest = topic.latest;
+            if (latest != null) {
+                subscription.offer(latest);
+            } else {
+                refresh(topic);
+            }
+        } catch (RuntimeException e) {
+            topic.refreshing.set(false);
+            unsubscribe(topic, subscription);
+            throw e;
+        }
+        return emitter;
+    }
+
+    private void unsubscribe(RateTopic topic, RateSubscription subscription) {
+        if (!topic.subscribers.remove(subscription)) {
+            return;
+        }
+        subscriptions.decrementAndGet();
+        topics.computeIfPresent(topic.source, (key, current) -> current.subscribers.isEmpty() ? null : current);
+    }
+
+    private void refreshAll() {
+        long now = System.nanoTime();
+        for (RateTopic topic : topics.values()) {
+            try {
+                refresh(topic);
+            } catch (RuntimeException e) {
+                topic.refreshing.set(false);
+                log.warn("Cannot refresh streamed {} rates.", topic.source, e);
+            }
+            for (RateSubscription subscription : topic.subscribers) {
+                if (now - subscription.lastSentAt() > heartbeatIntervalNanos) {
+                    subscription.heartbeat();
+                }
+            }
+        }
+    }
+
+    private void refresh(RateTopic topic) {
+        if (!topic.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Set<String> targets = new HashSet<>();
+        for (RateSubscription subscription : topic.subscribers) {
+            targets.addAll(subscription.targets());
+        }
+        CompletableFuture<CurrencyRates> rates;
+        try {
+            rates = dataProvider.getCurrencyAsync(topic.source, targets);
+        } catch (RuntimeException e) {
+            rates = CompletableFuture.failedFuture(e);
+        }
+        rates.whenComplete((result, error) -> {
+            topic.refreshing.set(false);
+            if (error != null) {
+                log.debug("Refresh of streamed {} rates failed.", topic.source, error);
+                if (topic.latest == null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    topic.subscribers.forEach(subscription -> subscription.fail(cause));
+                }
+                return;
+            }
+            topic.latest = result;
+            topic.subscribers.forEach(subscription -> subscription.offer(result));
+        });
+    }
+
+    private static final class RateTopic {
+        private final String source;
+        private final Set<RateSubscription> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile CurrencyRates latest;
+
+        private RateTopic(String source) {
+            this.source = source;
+        }
+    }
+}
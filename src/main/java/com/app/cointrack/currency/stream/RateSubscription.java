@@ -0,0 +1,149 @@
+package com.app.cointrack.currency.stream;
+
+import com.app.cointrack.currency.factory.CurrencyDTOFactory;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A single subscriber of {@link RateStreamService}. It keeps the last pushed rate of each of its targets, at most
+ * one pending update, and a flag for a pending heartbeat. A drain task on the send executor pushes them.
+ */
+final class RateSubscription {
+    private final SseEmitter emitter;
+    private final List<String> targets;
+    private final Set<String> targetSet;
+    private final double threshold;
+    private final Executor sendExecutor;
+    private final double[] lastSent;
+    private final AtomicReference<CurrencyRates> pending = new AtomicReference<>();
+    private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long lastSentAt;
+    private volatile boolean closed;
+    private volatile Runnable close = () -> closed = true;
+
+    RateSubscription(SseEmitter emitter, Set<String> targets, double threshold, Executor sendExecutor, long now) {
+        this.emitter = emitter;
+        this.targets = List.copyOf(targets);
+        this.targetSet = Set.copyOf(targets);
+        this.threshold = threshold;
+        this.sendExecutor = sendExecutor;
+        this.lastSent = new double[this.targets.size()];
+        this.lastSentAt = now;
+        Arrays.fill(lastSent, Double.NaN);
+    }
+
+    Set<String> targets() {
+        return targetSet;
+    }
+
+    long lastSentAt() {
+        return lastSentAt;
+    }
+
+    void onClose(Runnable callback) {
+        Runnable close = () -> {
+            closed = true;
+            callback.run();
+        };
+        this.close = close;
+        emitter.onCompletion(close);
+        emitter.onTimeout(() -> {
+            close.run();
+            emitter.complete();
+        });
+        emitter.onError(error -> close.run());
+    }
+
+    synchronized void offer(CurrencyRates rates) {
+        if (closed || !changed(rates)) {
+            return;
+        }
+        for (int i = 0; i < targets.size(); i++) {
+            double rate = rates.rate(targets.get(i));
+            if (!Double.isNaN(rate)) {
+                lastSent[i] = rate;
+            }
+        }
+        pending.set(rates.select(targetSet));
+        drain();
+    }
+
+    /**
+     * Ends the subscription with {@code error}, e.g. when its first rates cannot be fetched.
+     */
+    void fail(Throwable error) {
+        if (!closed) {
+            close.run();
+            emitter.completeWithError(error);
+        }
+    }
+
+    void heartbeat() {
+        if (!closed) {
+            heartbeatPending.set(true);
+            drain();
+        }
+    }
+
+    private boolean changed(CurrencyRates rates) {
+        for (int i = 0; i < targets.size(); i++) {
+            double rate = rates.rate(targets.get(i));
+            if (Double.isNaN(rate)) {
+                continue;
+            }
+            double previous = lastSent[i];
+            if (Double.isNaN(previous) || Math.abs(rate - previous) > threshold * Math.abs(previous)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(this::send);
+        } catch (RuntimeException e) {
+            draining.set(false);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void send() {
+        try {
+            while (!closed) {
+                CurrencyRates rates = pending.getAndSet(null);
+                if (rates != null) {
+                    emitter.send(SseEmitter.event()
+                            .name("rates")
+                            .data(CurrencyDTOFactory.create(rates), MediaType.APPLICATION_JSON));
+                } else if (heartbeatPending.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    break;
+                }
+                lastSentAt = System.nanoTime();
+            }
+        } catch (IOException | IllegalStateException e) {
+            closed = true;
+            emitter.completeWithError(e);
+        } finally {
+            draining.set(false);
+        }
+        if (!closed && (pending.get() != null || heartbeatPending.get())) {
+            drain();
+        }
+    }
+}
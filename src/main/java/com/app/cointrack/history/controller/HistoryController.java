@@ -0,0 +1,30 @@
+package com.app.cointrack.history.controller;
+
+import com.app.cointrack.history.dto.RateHistoryResponseDTO;
+import com.app.cointrack.history.dto.RatePointDTO;
+import com.app.cointrack.history.service.HistoryService;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/history")
+@AllArgsConstructor
+public class HistoryController {
+    private final HistoryService historyService;
+
+    @GetMapping("/{currency}/{target}")
+    public RatePointDTO getRateAt(@PathVariable String currency, @PathVariable String target, @RequestParam(name = "at", required = false) Instant at) {
+        return historyService.getRateAt(currency, target, at);
+    }
+
+    @GetMapping("/{currency}/{target}/range")
+    public RateHistoryResponseDTO getRange(@PathVariable String currency, @PathVariable String target,
+                                           @RequestParam(name = "from") Instant from, @RequestParam(name = "to") Instant to,
+                                           @RequestParam(name = "step", required = false) Duration step,
+                                           @RequestParam(name = "aggregation", defaultValue = "last") String aggregation) {
+        return historyService.getRange(currency, target, from, to, step, aggregation);
+    }
+}
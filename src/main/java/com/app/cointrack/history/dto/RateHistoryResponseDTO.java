@@ -0,0 +1,17 @@
+package com.app.cointrack.history.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Builder
+public class RateHistoryResponseDTO {
+    String source;
+    String target;
+    Duration step;
+    String aggregation;
+    List<RatePointDTO> points;
+}
@@ -0,0 +1,13 @@
+package com.app.cointrack.history.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+public class RatePointDTO {
+    Instant timestamp;
+    double rate;
+}
@@ -0,0 +1,55 @@
+package com.app.cointrack.history.recorder;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.rate.RatesFetchedEvent;
+import com.app.cointrack.history.store.TimeSeriesStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends every fetched rate to the history store and flushes the store periodically.
+ */
+@Slf4j
+@Component
+public class HistoryRecorder {
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("history-flush").daemon().factory());
+    private final TimeSeriesStore store;
+
+    public HistoryRecorder(TimeSeriesStore store, @Value("${cointrack.history.flush-interval}") Duration flushInterval) {
+        this.store = store;
+        scheduler.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onRatesFetched(RatesFetchedEvent event) {
+        long timestamp = event.fetchedAt().toEpochMilli();
+        for (CurrencyRates rates : event.rates()) {
+            for (int i = 0; i < rates.size(); i++) {
+                store.append(rates.getSource(), rates.targetAt(i), timestamp, rates.rateAt(i));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void flush() {
+        try {
+            store.flush();
+        } catch (IOException e) {
+            log.error("Cannot flush rate history, retrying on the next flush.", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.app.cointrack.history.service;
+
+import com.app.cointrack.history.dto.RateHistoryResponseDTO;
+import com.app.cointrack.history.dto.RatePointDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public interface HistoryService {
+    RatePointDTO getRateAt(String currency, String target, Instant at);
+    RateHistoryResponseDTO getRange(String currency, String target, Instant from, Instant to, Duration step, String aggregation);
+}
@@ -0,0 +1,91 @@
+package com.app.cointrack.history.service.impl;
+
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.resolver.CurrencyResolver;
+import com.app.cointrack.history.dto.RateHistoryResponseDTO;
+import com.app.cointrack.history.dto.RatePointDTO;
+import com.app.cointrack.history.service.HistoryService;
+import com.app.cointrack.history.store.Aggregation;
+import com.app.cointrack.history.store.RatePoint;
+import com.app.cointrack.history.store.TimeSeriesStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+@Service
+public class HistoryServiceImpl implements HistoryService {
+    private final TimeSeriesStore store;
+    private final CurrencyResolver currencyResolver;
+    private final int maxPoints;
+
+    public HistoryServiceImpl(TimeSeriesStore store, CurrencyResolver currencyResolver,
+                              @Value("${cointrack.history.max-points}") int maxPoints) {
+        this.store = store;
+        this.currencyResolver = currencyResolver;
+        this.maxPoints = maxPoints;
+    }
+
+    @Override
+    public RatePointDTO getRateAt(String currency, String target, Instant at) {
+        RatePoint point = store.rateAt(currencyResolver.resolve(currency), normalize(target),
+                (at == null ? Instant.now() : at).toEpochMilli());
+        if (point == null) {
+            throw new RequestValidationException("No recorded rate of " + currency + " in " + target + " at the given time.");
+        }
+        return toDTO(point);
+    }
+
+    /**
+     * Without a step the range is split into at most {@code maxPoints} buckets; an explicit step producing more
+     * buckets than that is rejected.
+     */
+    @Override
+    public RateHistoryResponseDTO getRange(String currency, String target, Instant from, Instant to, Duration step, String aggregation) {
+        if (from.isAfter(to)) {
+            throw new RequestValidationException("Range start must not be after its end.");
+        }
+        long span = to.toEpochMilli() - from.toEpochMilli() + 1;
+        long stepMillis = step == null ? Math.ceilDiv(span, maxPoints) : step.toMillis();
+        if (stepMillis <= 0) {
+            throw new RequestValidationException("Step must be at least one millisecond.");
+        }
+        if (Math.ceilDiv(span, stepMillis) > maxPoints) {
+            throw new RequestValidationException("Range must not have more than " + maxPoints + " points.");
+        }
+        Aggregation parsedAggregation = parseAggregation(aggregation);
+        String source = currencyResolver.resolve(currency);
+        String normalizedTarget = normalize(target);
+        return RateHistoryResponseDTO.builder()
+                .source(source)
+                .target(normalizedTarget)
+                .step(Duration.ofMillis(stepMillis))
+                .aggregation(parsedAggregation.name().toLowerCase(Locale.ROOT))
+                .points(store.range(source, normalizedTarget, from.toEpochMilli(), to.toEpochMilli(), stepMillis, parsedAggregation)
+                        .stream()
+                        .map(HistoryServiceImpl::toDTO)
+                        .toList())
+                .build();
+    }
+
+    private static Aggregation parseAggregation(String aggregation) {
+        try {
+            return Aggregation.valueOf(aggregation.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RequestValidationException("Unknown aggregation " + aggregation + ".");
+        }
+    }
+
+    private static String normalize(String target) {
+        return target.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static RatePointDTO toDTO(RatePoint point) {
+        return RatePointDTO.builder()
+                .timestamp(Instant.ofEpochMilli(point.timestamp()))
+                .rate(point.rate())
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.app.cointrack.history.store;
+
+/**
+ * How the points falling into one downsampling bucket are reduced to a single rate.
+ */
+public enum Aggregation {
+    FIRST, LAST, MIN, MAX, AVERAGE
+}
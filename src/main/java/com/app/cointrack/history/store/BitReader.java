@@ -0,0 +1,34 @@
+package com.app.cointrack.history.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bits most significant first from a region of a (possibly memory-mapped) buffer.
+ */
+final class BitReader {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private long position;
+
+    BitReader(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    long read(int bits) {
+        long result = 0;
+        while (bits > 0) {
+            int current = buffer.get(offset + (int) (position >>> 3)) & 0xFF;
+            int available = 8 - (int) (position & 7);
+            int taken = Math.min(available, bits);
+            result = (result << taken) | ((current >>> (available - taken)) & ((1 << taken) - 1));
+            bits -= taken;
+            position += taken;
+        }
+        return result;
+    }
+
+    boolean readBit() {
+        return read(1) == 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.app.cointrack.history.store;
+
+import java.util.Arrays;
+
+/**
+ * Growable bit buffer written most significant bit first.
+ */
+final class BitWriter {
+    private long[] words = new long[8];
+    private long length;
+
+    void write(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        int index = (int) (length >>> 6);
+        if (index + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+        int free = 64 - (int) (length & 63);
+        if (bits <= free) {
+            words[index] |= masked << (free - bits);
+        } else {
+            words[index] |= masked >>> (bits - free);
+            words[index + 1] |= masked << (64 - (bits - free));
+        }
+        length += bits;
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    long length() {
+        return length;
+    }
+
+    byte[] toByteArray() {
+        byte[] bytes = new byte[(int) ((length + 7) >>> 3)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> (56 - ((i & 7) << 3)));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.app.cointrack.history.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encoded points of one pair, in time order, held in memory until written to a segment.
+ */
+record Chunk(byte[] data, int count, long minTimestamp, long maxTimestamp) {
+    ChunkDecoder decoder() {
+        return new ChunkDecoder(ByteBuffer.wrap(data), 0, count);
+    }
+}
@@ -0,0 +1,78 @@
+package com.app.cointrack.history.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Iterates over the points of a chunk written by {@link ChunkEncoder}.
+ */
+final class ChunkDecoder {
+    private final BitReader input;
+    private final int count;
+    private int read;
+    private long timestamp;
+    private long delta;
+    private long value;
+    private int leading;
+    private int trailing;
+
+    ChunkDecoder(ByteBuffer buffer, int offset, int count) {
+        this.input = new BitReader(buffer, offset);
+        this.count = count;
+    }
+
+    boolean next() {
+        if (read == count) {
+            return false;
+        }
+        if (read == 0) {
+            timestamp = input.read(64);
+            value = input.read(64);
+        } else {
+            delta += readDeltaOfDelta();
+            timestamp += delta;
+            value ^= readXor();
+        }
+        read++;
+        return true;
+    }
+
+    long timestamp() {
+        return timestamp;
+    }
+
+    double rate() {
+        return Double.longBitsToDouble(value);
+    }
+
+    private long readDeltaOfDelta() {
+        if (!input.readBit()) {
+            return 0;
+        }
+        if (!input.readBit()) {
+            return signed(input.read(7), 7);
+        }
+        if (!input.readBit()) {
+            return signed(input.read(9), 9);
+        }
+        if (!input.readBit()) {
+            return signed(input.read(12), 12);
+        }
+        return input.read(64);
+    }
+
+    private long readXor() {
+        if (!input.readBit()) {
+            return 0;
+        }
+        if (input.readBit()) {
+            leading = (int) input.read(5);
+            int meaningful = (int) input.read(6) + 1;
+            trailing = 64 - leading - meaningful;
+        }
+        return input.read(64 - leading - trailing) << trailing;
+    }
+
+    private static long signed(long value, int bits) {
+        return (value << (64 - bits)) >> (64 - bits);
+    }
+}
@@ -0,0 +1,82 @@
+package com.app.cointrack.history.store;
+
+/**
+ * Gorilla-style encoder of a chunk of points: the first timestamp and value are stored raw, further timestamps as
+ * delta-of-delta in variable length buckets and further values as the XOR with the previous value, reusing the
+ * previous window of meaningful bits when it fits.
+ */
+final class ChunkEncoder {
+    private final BitWriter output = new BitWriter();
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastValue;
+    private int lastLeading = -1;
+    private int lastTrailing;
+
+    void add(long timestamp, double rate) {
+        long value = Double.doubleToRawLongBits(rate);
+        if (count == 0) {
+            output.write(timestamp, 64);
+            output.write(value, 64);
+            firstTimestamp = timestamp;
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeDeltaOfDelta(delta - lastDelta);
+            writeXor(value ^ lastValue);
+            lastDelta = delta;
+        }
+        lastTimestamp = timestamp;
+        lastValue = value;
+        count++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    Chunk toChunk() {
+        return new Chunk(output.toByteArray(), count, firstTimestamp, lastTimestamp);
+    }
+
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            output.writeBit(false);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            output.write(0b10, 2);
+            output.write(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            output.write(0b110, 3);
+            output.write(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            output.write(0b1110, 4);
+            output.write(deltaOfDelta, 12);
+        } else {
+            output.write(0b1111, 4);
+            output.write(deltaOfDelta, 64);
+        }
+    }
+
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            output.writeBit(false);
+            return;
+        }
+        output.writeBit(true);
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (lastLeading >= 0 && leading >= lastLeading && trailing >= lastTrailing) {
+            output.writeBit(false);
+            output.write(xor >>> lastTrailing, 64 - lastLeading - lastTrailing);
+            return;
+        }
+        int meaningful = 64 - leading - trailing;
+        output.writeBit(true);
+        output.write(leading, 5);
+        output.write(meaningful - 1, 6);
+        output.write(xor >>> trailing, meaningful);
+        lastLeading = leading;
+        lastTrailing = trailing;
+    }
+}
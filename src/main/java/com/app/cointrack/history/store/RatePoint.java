@@ -0,0 +1,3 @@
+package com.app.cointrack.history.store;
+
+public record RatePoint(long timestamp, double rate) {}
@@ -0,0 +1,208 @@
+package com.app.cointrack.history.store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Immutable, memory-mapped segment file holding chunks of many pairs. Layout: a header
+ * ({@code magic, version, firstSequence, lastSequence}), the encoded chunks, an index with every pair key (in key
+ * order) followed by the {@code minTimestamp, maxTimestamp, count, offset, length} of each of its chunks (in time
+ * order), and a footer ({@code indexOffset, magic}). Only the index is kept on the heap; chunks are decoded straight
+ * from the mapping. A segment produced by compaction covers the sequences of all segments it replaced.
+ */
+final class Segment {
+    private static final int MAGIC = 0x43545353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int FOOTER_SIZE = 12;
+
+    private final Path file;
+    private final long firstSequence;
+    private final long lastSequence;
+    private final MappedByteBuffer buffer;
+    private final String[] keys;
+    private final int[] keyChunks;
+    private final long[] minTimestamps;
+    private final long[] maxTimestamps;
+    private final int[] counts;
+    private final int[] offsets;
+    private final int dataEnd;
+
+    private Segment(Path file, long firstSequence, long lastSequence, MappedByteBuffer buffer, String[] keys,
+                    int[] keyChunks, long[] minTimestamps, long[] maxTimestamps, int[] counts, int[] offsets,
+                    int dataEnd) {
+        this.file = file;
+        this.firstSequence = firstSequence;
+        this.lastSequence = lastSequence;
+        this.buffer = buffer;
+        this.keys = keys;
+        this.keyChunks = keyChunks;
+        this.minTimestamps = minTimestamps;
+        this.maxTimestamps = maxTimestamps;
+        this.counts = counts;
+        this.offsets = offsets;
+        this.dataEnd = dataEnd;
+    }
+
+    static void write(Path file, long firstSequence, long lastSequence, SortedMap<String, List<Chunk>> chunks)
+            throws IOException {
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(firstSequence);
+                output.writeLong(lastSequence);
+                for (List<Chunk> keyChunks : chunks.values()) {
+                    for (Chunk chunk : keyChunks) {
+                        output.write(chunk.data());
+                    }
+                }
+                long indexOffset = output.size();
+                long offset = HEADER_SIZE;
+                output.writeInt(chunks.size());
+                for (var entry : chunks.entrySet()) {
+                    byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    output.writeShort(key.length);
+                    output.write(key);
+                    output.writeInt(entry.getValue().size());
+                    for (Chunk chunk : entry.getValue()) {
+                        output.writeLong(chunk.minTimestamp());
+                        output.writeLong(chunk.maxTimestamp());
+                        output.writeInt(chunk.count());
+                        output.writeInt((int) offset);
+                        offset += chunk.data().length;
+                    }
+                }
+                output.writeLong(indexOffset);
+                output.writeInt(MAGIC);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static Segment read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int size = buffer.capacity();
+            if (size < HEADER_SIZE + FOOTER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(size - 4) != MAGIC) {
+                throw new IOException("Unsupported history segment " + file + ".");
+            }
+            long firstSequence = buffer.getLong(8);
+            long lastSequence = buffer.getLong(16);
+            int indexOffset = (int) buffer.getLong(size - FOOTER_SIZE);
+            ByteBuffer index = buffer.duplicate().position(indexOffset);
+            int keyCount = index.getInt();
+            String[] keys = new String[keyCount];
+            int[] keyChunks = new int[keyCount + 1];
+            long[] minTimestamps = new long[16];
+            long[] maxTimestamps = new long[16];
+            int[] counts = new int[16];
+            int[] offsets = new int[16];
+            int chunkCount = 0;
+            for (int k = 0; k < keyCount; k++) {
+                byte[] key = new byte[index.getShort()];
+                index.get(key);
+                keys[k] = new String(key, StandardCharsets.UTF_8);
+                keyChunks[k] = chunkCount;
+                int chunks = index.getInt();
+                if (chunkCount + chunks > counts.length) {
+                    int capacity = Math.max(counts.length * 2, chunkCount + chunks);
+                    minTimestamps = Arrays.copyOf(minTimestamps, capacity);
+                    maxTimestamps = Arrays.copyOf(maxTimestamps, capacity);
+                    counts = Arrays.copyOf(counts, capacity);
+                    offsets = Arrays.copyOf(offsets, capacity);
+                }
+                for (int c = 0; c < chunks; c++, chunkCount++) {
+                    minTimestamps[chunkCount] = index.getLong();
+                    maxTimestamps[chunkCount] = index.getLong();
+                    counts[chunkCount] = index.getInt();
+                    offsets[chunkCount] = index.getInt();
+                }
+            }
+            keyChunks[keyCount] = chunkCount;
+            return new Segment(file, firstSequence, lastSequence, buffer, keys, keyChunks,
+                    Arrays.copyOf(minTimestamps, chunkCount), Arrays.copyOf(maxTimestamps, chunkCount),
+                    Arrays.copyOf(counts, chunkCount), Arrays.copyOf(offsets, chunkCount), indexOffset);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted history segment " + file + ".", e);
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    List<String> keys() {
+        return Arrays.asList(keys);
+    }
+
+    long points() {
+        long points = 0;
+        for (int count : counts) {
+            points += count;
+        }
+        return points;
+    }
+
+    long size() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Returns the index range {@code [from, to)} of the chunks of {@code key}, empty when the key is missing.
+     */
+    int[] chunks(String key) {
+        int k = Arrays.binarySearch(keys, key);
+        return k < 0 ? new int[] {0, 0} : new int[] {keyChunks[k], keyChunks[k + 1]};
+    }
+
+    long minTimestamp(int chunk) {
+        return minTimestamps[chunk];
+    }
+
+    long maxTimestamp(int chunk) {
+        return maxTimestamps[chunk];
+    }
+
+    int count(int chunk) {
+        return counts[chunk];
+    }
+
+    /**
+     * Copies the encoded bytes of a chunk out of the mapping, without decoding them.
+     */
+    Chunk chunk(int chunk) {
+        int end = chunk + 1 < offsets.length ? offsets[chunk + 1] : dataEnd;
+        byte[] data = new byte[end - offsets[chunk]];
+        buffer.get(offsets[chunk], data);
+        return new Chunk(data, counts[chunk], minTimestamps[chunk], maxTimestamps[chunk]);
+    }
+
+    ChunkDecoder decoder(int chunk) {
+        return new ChunkDecoder(buffer, offsets[chunk], counts[chunk]);
+    }
+}
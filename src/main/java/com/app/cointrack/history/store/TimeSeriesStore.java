@@ -0,0 +1,402 @@
+package com.app.cointrack.history.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Append-only store of rate time series, one series per {@code source/target} pair. Points are appended to an
+ * in-memory chunk per pair, sealed every {@code chunkSize} points; {@link #flush()} writes all pending chunks into
+ * a new {@link Segment} file. Once there are more than {@code maxSegments} segments, a run of adjacent segments of
+ * similar size is merged into one. Points older than the last point of their pair are dropped, so every
+ * series stays in time order and {@link #rateAt} only decodes the newest chunk starting at or before the requested
+ * time. Points not flushed yet are lost on a crash.
+ */
+@Slf4j
+public class TimeSeriesStore implements Closeable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".tss";
+
+    private final Path directory;
+    private final int chunkSize;
+    private final int maxSegments;
+    private final Map<String, Series> series = new HashMap<>();
+    private final Object flushLock = new Object();
+    private List<Segment> segments;
+    private long nextSequence;
+    private long pendingPoints;
+
+    private TimeSeriesStore(Path directory, int chunkSize, int maxSegments, List<Segment> segments) {
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+        this.maxSegments = maxSegments;
+        this.segments = segments;
+        this.nextSequence = segments.isEmpty() ? 0 : segments.getLast().lastSequence() + 1;
+        for (Segment segment : segments) {
+            for (String key : segment.keys()) {
+                int[] chunks = segment.chunks(key);
+                long last = segment.maxTimestamp(chunks[1] - 1);
+                series.computeIfAbsent(key, ignored -> new Series()).lastTimestamp =
+                        Math.max(series.get(key).lastTimestamp, last);
+            }
+        }
+    }
+
+    /**
+     * Opens the store in {@code directory}, loading existing segments. Segments whose sequences are covered by a
+     * compacted segment (left behind when compaction was interrupted) are deleted.
+     */
+    public static TimeSeriesStore open(Path directory, int chunkSize, int maxSegments) throws IOException {
+        if (chunkSize < 2 || maxSegments < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 2 and at least 1 segment is required.");
+        }
+        Files.createDirectories(directory);
+        List<Segment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                loaded.add(Segment.read(file));
+            }
+        }
+        loaded.sort(Comparator.comparingLong(Segment::lastSequence).thenComparingLong(Segment::firstSequence));
+        List<Segment> segments = new ArrayList<>();
+        for (int i = loaded.size() - 1; i >= 0; i--) {
+            Segment segment = loaded.get(i);
+            if (!segments.isEmpty() && segment.lastSequence() >= segments.getFirst().firstSequence()) {
+                log.info("Deleting history segment {} replaced by compaction.", segment.file());
+                Files.deleteIfExists(segment.file());
+            } else {
+                segments.addFirst(segment);
+            }
+        }
+        return new TimeSeriesStore(directory, chunkSize, maxSegments, List.copyOf(segments));
+    }
+
+    public synchronized void append(String source, String target, long timestamp, double rate) {
+        Series pair = series.computeIfAbsent(key(source, target), ignored -> new Series());
+        if (timestamp < pair.lastTimestamp || Double.isNaN(rate)) {
+            return;
+        }
+        if (pair.head == null) {
+            pair.head = new ChunkEncoder();
+        }
+        pair.head.add(timestamp, rate);
+        pair.lastTimestamp = timestamp;
+        pendingPoints++;
+        if (pair.head.count() == chunkSize) {
+            pair.sealed.add(pair.head.toChunk());
+            pair.head = null;
+        }
+    }
+
+    /**
+     * Returns the last point of the pair at or before {@code timestamp}, or {@code null} when there is none.
+     */
+    public RatePoint rateAt(String source, String target, long timestamp) {
+        String key = key(source, target);
+        List<Segment> current;
+        List<Chunk> memory = new ArrayList<>();
+        synchronized (this) {
+            current = segments;
+            collectMemoryChunks(key, memory);
+        }
+        for (int i = memory.size() - 1; i >= 0; i--) {
+            Chunk chunk = memory.get(i);
+            if (chunk.minTimestamp() <= timestamp) {
+                return lastPoint(chunk.decoder(), timestamp);
+            }
+        }
+        for (int i = current.size() - 1; i >= 0; i--) {
+            Segment segment = current.get(i);
+            int[] chunks = segment.chunks(key);
+            for (int chunk = chunks[1] - 1; chunk >= chunks[0]; chunk--) {
+                if (segment.minTimestamp(chunk) <= timestamp) {
+                    return lastPoint(segment.decoder(chunk), timestamp);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the points of the pair in {@code [from, to]} downsampled into buckets of {@code step} milliseconds
+     * starting at {@code from}; every non-empty bucket yields one point stamped with the bucket start.
+     */
+    public List<RatePoint> range(String source, String target, long from, long to, long step, Aggregation aggregation) {
+        List<RatePoint> points = new ArrayList<>();
+        Bucket bucket = new Bucket(aggregation);
+        forEachPoint(key(source, target), from, to, (time, rate) -> {
+            long start = from + (time - from) / step * step;
+            if (bucket.count > 0 && bucket.start != start) {
+                points.add(bucket.toPoint());
+                bucket.reset();
+            }
+            bucket.add(start, rate);
+        });
+        if (bucket.count > 0) {
+            points.add(bucket.toPoint());
+        }
+        return points;
+    }
+
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            SortedMap<String, List<Chunk>> pending = new TreeMap<>();
+            long sequence;
+            synchronized (this) {
+                for (var entry : series.entrySet()) {
+                    Series pair = entry.getValue();
+                    if (pair.head != null) {
+                        pair.sealed.add(pair.head.toChunk());
+                        pair.head = null;
+                    }
+                    if (!pair.sealed.isEmpty()) {
+                        pending.put(entry.getKey(), List.copyOf(pair.sealed));
+                    }
+                }
+                sequence = nextSequence;
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            Path file = segmentFile(sequence);
+            Segment.write(file, sequence, sequence, pending);
+            Segment segment = Segment.read(file);
+            synchronized (this) {
+                List<Segment> updated = new ArrayList<>(segments);
+                updated.add(segment);
+                segments = List.copyOf(updated);
+                nextSequence = sequence + 1;
+                pending.forEach((key, chunks) -> {
+                    Series pair = series.get(key);
+                    pair.sealed.subList(0, chunks.size()).clear();
+                    chunks.forEach(chunk -> pendingPoints -= chunk.count());
+                });
+            }
+            if (segments.size() > maxSegments) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Flushes pending points; the store must not be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    public synchronized StoreStats getStats() {
+        long points = pendingPoints;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            points += segment.points();
+            bytes += segment.size();
+        }
+        return new StoreStats(series.size(), segments.size(), points, bytes);
+    }
+
+    /**
+     * Merges one run of adjacent segments: the adjacent pair with the smallest combined size, extended by
+     * neighbours no larger than the run so far. Old, large segments are only merged once the recent ones have
+     * grown to their size, which keeps the data rewritten per point logarithmic in the store size. Full chunks are
+     * copied byte for byte; only partial chunks, left by flushes, are decoded and re-encoded together.
+     */
+    private void compact() throws IOException {
+        List<Segment> current;
+        synchronized (this) {
+            current = segments;
+        }
+        int from = current.size() - 2;
+        long size = Long.MAX_VALUE;
+        for (int i = 0; i + 1 < current.size(); i++) {
+            long pair = current.get(i).size() + current.get(i + 1).size();
+            if (pair <= size) {
+                from = i;
+                size = pair;
+            }
+        }
+        int to = from + 2;
+        while (true) {
+            if (from > 0 && current.get(from - 1).size() <= size) {
+                size += current.get(--from).size();
+            } else if (to < current.size() && current.get(to).size() <= size) {
+                size += current.get(to++).size();
+            } else {
+                break;
+            }
+        }
+        List<Segment> compacted = current.subList(from, to);
+
+        SortedSet<String> keys = new TreeSet<>();
+        compacted.forEach(segment -> keys.addAll(segment.keys()));
+        SortedMap<String, List<Chunk>> chunks = new TreeMap<>();
+        for (String key : keys) {
+            List<Chunk> keyChunks = new ArrayList<>();
+            ChunkEncoder[] encoder = {new ChunkEncoder()};
+            for (Segment segment : compacted) {
+                int[] range = segment.chunks(key);
+                for (int chunk = range[0]; chunk < range[1]; chunk++) {
+                    if (segment.count(chunk) >= chunkSize) {
+                        if (encoder[0].count() > 0) {
+                            keyChunks.add(encoder[0].toChunk());
+                            encoder[0] = new ChunkEncoder();
+                        }
+                        keyChunks.add(segment.chunk(chunk));
+                        continue;
+                    }
+                    forEachChunkPoint(segment.decoder(chunk), Long.MIN_VALUE, Long.MAX_VALUE, (time, rate) -> {
+                        encoder[0].add(time, rate);
+                        if (encoder[0].count() == chunkSize) {
+                            keyChunks.add(encoder[0].toChunk());
+                            encoder[0] = new ChunkEncoder();
+                        }
+                    });
+                }
+            }
+            if (encoder[0].count() > 0) {
+                keyChunks.add(encoder[0].toChunk());
+            }
+            chunks.put(key, keyChunks);
+        }
+        long firstSequence = compacted.getFirst().firstSequence();
+        long lastSequence = compacted.getLast().lastSequence();
+        Path file = segmentFile(lastSequence);
+        Segment.write(file, firstSequence, lastSequence, chunks);
+        Segment segment = Segment.read(file);
+        synchronized (this) {
+            List<Segment> updated = new ArrayList<>(segments);
+            updated.subList(from, to).clear();
+            updated.add(from, segment);
+            segments = List.copyOf(updated);
+        }
+        for (Segment old : compacted) {
+            if (!old.file().equals(file)) {
+                Files.deleteIfExists(old.file());
+            }
+        }
+        log.info("Compacted {} history segments into {}.", compacted.size(), file);
+    }
+
+    private void forEachPoint(String key, long from, long to, PointConsumer consumer) {
+        List<Segment> current;
+        List<Chunk> memory = new ArrayList<>();
+        synchronized (this) {
+            current = segments;
+            collectMemoryChunks(key, memory);
+        }
+        for (Segment segment : current) {
+            forEachSegmentPoint(segment, key, from, to, consumer);
+        }
+        for (Chunk chunk : memory) {
+            if (chunk.maxTimestamp() >= from && chunk.minTimestamp() <= to) {
+                forEachChunkPoint(chunk.decoder(), from, to, consumer);
+            }
+        }
+    }
+
+    private void collectMemoryChunks(String key, List<Chunk> memory) {
+        Series pair = series.get(key);
+        if (pair != null) {
+            memory.addAll(pair.sealed);
+            if (pair.head != null) {
+                memory.add(pair.head.toChunk());
+            }
+        }
+    }
+
+    /**
+     * Returns the last point of a chunk at or before {@code timestamp}; the chunk must start at or before it.
+     */
+    private static RatePoint lastPoint(ChunkDecoder decoder, long timestamp) {
+        long lastTimestamp = 0;
+        double lastRate = Double.NaN;
+        while (decoder.next() && decoder.timestamp() <= timestamp) {
+            lastTimestamp = decoder.timestamp();
+            lastRate = decoder.rate();
+        }
+        return Double.isNaN(lastRate) ? null : new RatePoint(lastTimestamp, lastRate);
+    }
+
+    private static void forEachSegmentPoint(Segment segment, String key, long from, long to, PointConsumer consumer) {
+        int[] chunks = segment.chunks(key);
+        for (int chunk = chunks[0]; chunk < chunks[1]; chunk++) {
+            if (segment.maxTimestamp(chunk) >= from && segment.minTimestamp(chunk) <= to) {
+                forEachChunkPoint(segment.decoder(chunk), from, to, consumer);
+            }
+        }
+    }
+
+    private static void forEachChunkPoint(ChunkDecoder decoder, long from, long to, PointConsumer consumer) {
+        while (decoder.next()) {
+            long timestamp = decoder.timestamp();
+            if (timestamp > to) {
+                return;
+            }
+            if (timestamp >= from) {
+                consumer.accept(timestamp, decoder.rate());
+            }
+        }
+    }
+
+    private Path segmentFile(long sequence) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private static String key(String source, String target) {
+        return source + "/" + target;
+    }
+
+    public record StoreStats(int series, int segments, long points, long bytes) {}
+
+    @FunctionalInterface
+    private interface PointConsumer {
+        void accept(long timestamp, double rate);
+    }
+
+    private static final class Series {
+        private final List<Chunk> sealed = new ArrayList<>();
+        private ChunkEncoder head;
+        private long lastTimestamp = Long.MIN_VALUE;
+    }
+
+    private static final class Bucket {
+        private final Aggregation aggregation;
+        private long start;
+        private int count;
+        private double value;
+
+        private Bucket(Aggregation aggregation) {
+            this.aggregation = aggregation;
+        }
+
+        private void add(long start, double rate) {
+            this.start = start;
+            if (count == 0) {
+                value = rate;
+            } else {
+                value = switch (aggregation) {
+                    case FIRST -> value;
+                    case LAST -> rate;
+                    case MIN -> Math.min(value, rate);
+                    case MAX -> Math.max(value, rate);
+                    case AVERAGE -> value + rate;
+                };
+            }
+            count++;
+        }
+
+        private RatePoint toPoint() {
+            return new RatePoint(start, aggregation == Aggregation.AVERAGE ? value / count : value);
+        }
+
+        private void reset() {
+            count = 0;
+        }
+    }
+}
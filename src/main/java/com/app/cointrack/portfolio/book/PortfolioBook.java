@@ -0,0 +1,240 @@
+package com.app.cointrack.portfolio.book;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+
+import java.util.*;
+
+/**
+ * In-memory book of portfolios valued incrementally. Positions are indexed by coin, and every portfolio keeps a
+ * running total per valuation currency. When a rate of a coin changes, only the positions in that coin are
+ * revalued and their totals moved by {@code quantity * (newRate - oldRate)}, so the cost of an update is
+ * proportional to the positions in the changed coin, not to the number of portfolios. Totals use compensated
+ * summation, so repeated updates do not accumulate rounding errors. A total stays unknown until every position
+ * of its portfolio has a rate in that currency.
+ */
+public class PortfolioBook {
+    private final Map<String, Portfolio> portfolios = new HashMap<>();
+    private final Map<String, CoinPositions> coins = new HashMap<>();
+    private final Map<String, Target> targets = new HashMap<>();
+    private int nextTarget;
+    private long revaluations;
+
+    /**
+     * Registers the portfolio or replaces its holdings and valuation currencies.
+     */
+    public synchronized void put(String id, Map<String, Double> holdings, Set<String> currencies) {
+        int[] targetIds = new int[currencies.size()];
+        String[] targetCodes = new String[currencies.size()];
+        int i = 0;
+        for (String currency : currencies) {
+            Target target = targets.computeIfAbsent(currency, code -> new Target(nextTarget++));
+            target.portfolios++;
+            targetIds[i] = target.id;
+            targetCodes[i++] = currency;
+        }
+        Portfolio portfolio = new Portfolio(targetIds, targetCodes);
+        holdings.forEach((coin, quantity) -> {
+            CoinPositions positions = coins.computeIfAbsent(coin, ignored -> new CoinPositions());
+            Position position = new Position(portfolio, quantity);
+            positions.positions.add(position);
+            portfolio.positions.put(coin, position);
+            for (int j = 0; j < targetIds.length; j++) {
+                portfolio.add(j, quantity, positions.rate(targetIds[j]));
+            }
+        });
+        Portfolio replaced = portfolios.put(id, portfolio);
+        if (replaced != null) {
+            release(replaced);
+        }
+    }
+
+    public synchronized boolean remove(String id) {
+        Portfolio portfolio = portfolios.remove(id);
+        if (portfolio == null) {
+            return false;
+        }
+        release(portfolio);
+        return true;
+    }
+
+    /**
+     * Revalues the positions in the source coin of the given rates whose rate changed.
+     *
+     * @return number of revalued positions
+     */
+    public synchronized int apply(CurrencyRates rates) {
+        CoinPositions positions = coins.get(rates.getSource());
+        if (positions == null) {
+            return 0;
+        }
+        int revalued = 0;
+        for (int i = 0; i < rates.size(); i++) {
+            Target target = targets.get(rates.targetAt(i));
+            if (target == null) {
+                continue;
+            }
+            double previous = positions.rate(target.id);
+            double rate = rates.rateAt(i);
+            if (Double.compare(previous, rate) == 0) {
+                continue;
+            }
+            positions.setRate(target.id, rate);
+            for (Position position : positions.positions) {
+                int j = position.portfolio.indexOf(target.id);
+                if (j >= 0) {
+                    position.portfolio.revalue(j, position.quantity, previous, rate);
+                    revalued++;
+                }
+            }
+        }
+        revaluations += revalued;
+        return revalued;
+    }
+
+    /**
+     * Returns the portfolio value per valuation currency, {@code null} where some position has no rate yet, or
+     * {@code null} when there is no such portfolio.
+     */
+    public synchronized Map<String, Double> valuation(String id) {
+        Portfolio portfolio = portfolios.get(id);
+        if (portfolio == null) {
+            return null;
+        }
+        Map<String, Double> values = new LinkedHashMap<>(portfolio.targetCodes.length * 2);
+        for (int j = 0; j < portfolio.targetCodes.length; j++) {
+            values.put(portfolio.targetCodes[j], portfolio.missing[j] > 0 ? null : portfolio.sums[j] + portfolio.compensations[j]);
+        }
+        return values;
+    }
+
+    public synchronized Set<String> getCoins() {
+        return Set.copyOf(coins.keySet());
+    }
+
+    public synchronized Set<String> getCurrencies() {
+        return Set.copyOf(targets.keySet());
+    }
+
+    public synchronized int size() {
+        return portfolios.size();
+    }
+
+    public synchronized long getRevaluations() {
+        return revaluations;
+    }
+
+    /**
+     * Drops the positions and valuation currencies of a portfolio that is no longer in the book; coins and
+     * currencies nobody else uses are forgotten together with their rates.
+     */
+    private void release(Portfolio portfolio) {
+        portfolio.positions.forEach((coin, position) -> {
+            CoinPositions positions = coins.get(coin);
+            positions.positions.remove(position);
+            if (positions.positions.isEmpty()) {
+                coins.remove(coin);
+            }
+        });
+        for (String code : portfolio.targetCodes) {
+            Target target = targets.get(code);
+            if (--target.portfolios == 0) {
+                targets.remove(code);
+            }
+        }
+    }
+
+    private static final class Target {
+        private final int id;
+        private int portfolios;
+
+        private Target(int id) {
+            this.id = id;
+        }
+    }
+
+    private static final class CoinPositions {
+        private final Set<Position> positions = new LinkedHashSet<>();
+        private double[] rates = new double[0];
+
+        private double rate(int target) {
+            return target < rates.length ? rates[target] : Double.NaN;
+        }
+
+        private void setRate(int target, double rate) {
+            if (target >= rates.length) {
+                int size = rates.length;
+                rates = Arrays.copyOf(rates, Math.max(target + 1, size * 2));
+                Arrays.fill(rates, size, rates.length, Double.NaN);
+            }
+            rates[target] = rate;
+        }
+    }
+
+    private static final class Position {
+        private final Portfolio portfolio;
+        private final double quantity;
+
+        private Position(Portfolio portfolio, double quantity) {
+            this.portfolio = portfolio;
+            this.quantity = quantity;
+        }
+    }
+
+    private static final class Portfolio {
+        private final int[] targetIds;
+        private final String[] targetCodes;
+        private final double[] sums;
+        private final double[] compensations;
+        private final int[] missing;
+        private final Map<String, Position> positions = new HashMap<>();
+
+        private Portfolio(int[] targetIds, String[] targetCodes) {
+            this.targetIds = targetIds;
+            this.targetCodes = targetCodes;
+            this.sums = new double[targetIds.length];
+            this.compensations = new double[targetIds.length];
+            this.missing = new int[targetIds.length];
+        }
+
+        private int indexOf(int target) {
+            for (int j = 0; j < targetIds.length; j++) {
+                if (targetIds[j] == target) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+
+        private void add(int j, double quantity, double rate) {
+            if (Double.isNaN(rate)) {
+                missing[j]++;
+            } else {
+                sum(j, quantity * rate);
+            }
+        }
+
+        private void revalue(int j, double quantity, double previous, double rate) {
+            if (Double.isNaN(previous)) {
+                missing[j]--;
+                sum(j, quantity * rate);
+            } else {
+                sum(j, quantity * rate);
+                sum(j, -quantity * previous);
+            }
+        }
+
+        /**
+         * Neumaier summation: the low-order bits lost when adding {@code value} are kept in the compensation.
+         */
+        private void sum(int j, double value) {
+            double sum = sums[j];
+            double total = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensations[j] += (sum - total) + value;
+            } else {
+                compensations[j] += (value - total) + sum;
+            }
+            sums[j] = total;
+        }
+    }
+}
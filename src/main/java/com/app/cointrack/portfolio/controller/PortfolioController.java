@@ -0,0 +1,32 @@
+package com.app.cointrack.portfolio.controller;
+
+import com.app.cointrack.portfolio.dto.PortfolioRequestDTO;
+import com.app.cointrack.portfolio.dto.PortfolioValuationDTO;
+import com.app.cointrack.portfolio.service.PortfolioService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/portfolios")
+@AllArgsConstructor
+public class PortfolioController {
+    private final PortfolioService portfolioService;
+
+    @PutMapping("/{id}")
+    public PortfolioValuationDTO putPortfolio(@PathVariable String id, @Valid @RequestBody PortfolioRequestDTO dto) {
+        return portfolioService.putPortfolio(id, dto);
+    }
+
+    @GetMapping("/{id}")
+    public PortfolioValuationDTO getValuation(@PathVariable String id) {
+        return portfolioService.getValuation(id);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> removePortfolio(@PathVariable String id) {
+        portfolioService.removePortfolio(id);
+        return ResponseEntity.noContent().build();
+    }
+}
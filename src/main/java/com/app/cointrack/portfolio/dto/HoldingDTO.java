@@ -0,0 +1,19 @@
+package com.app.cointrack.portfolio.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldingDTO {
+    @NotBlank(message = "Coin is mandatory.")
+    String coin;
+    @Positive(message = "Quantity must be positive.")
+    double quantity;
+}
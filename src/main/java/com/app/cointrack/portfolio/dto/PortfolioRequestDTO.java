@@ -0,0 +1,25 @@
+package com.app.cointrack.portfolio.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioRequestDTO {
+    @NotNull
+    @Size(min = 1, message = "Portfolio must hold at least one coin.")
+    List<@Valid HoldingDTO> holdings;
+    @NotNull
+    @Size(min = 1, message = "You must select at least one valuation currency.")
+    Set<String> currencies;
+}
@@ -0,0 +1,14 @@
+package com.app.cointrack.portfolio.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@Builder
+public class PortfolioValuationDTO {
+    String id;
+    Map<String, Double> values;
+    boolean complete;
+}
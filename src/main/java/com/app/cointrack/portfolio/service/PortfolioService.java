@@ -0,0 +1,10 @@
+package com.app.cointrack.portfolio.service;
+
+import com.app.cointrack.portfolio.dto.PortfolioRequestDTO;
+import com.app.cointrack.portfolio.dto.PortfolioValuationDTO;
+
+public interface PortfolioService {
+    PortfolioValuationDTO putPortfolio(String id, PortfolioRequestDTO portfolio);
+    PortfolioValuationDTO getValuation(String id);
+    void removePortfolio(String id);
+}
@@ -0,0 +1,150 @@
+package com.app.cointrack.portfolio.service.impl;
+
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.rate.RatesFetchedEvent;
+import com.app.cointrack.currency.resolver.CurrencyResolver;
+import com.app.cointrack.portfolio.book.PortfolioBook;
+import com.app.cointrack.portfolio.dto.HoldingDTO;
+import com.app.cointrack.portfolio.dto.PortfolioRequestDTO;
+import com.app.cointrack.portfolio.dto.PortfolioValuationDTO;
+import com.app.cointrack.portfolio.service.PortfolioService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps registered portfolios valued. Every fetched rate of a held coin is applied to the {@link PortfolioBook},
+ * and a refresh loop fetches rates of all held coins once per {@code refreshInterval}, so portfolios stay valued
+ * even when nobody else asks for their coins. Portfolios are kept in memory only.
+ */
+@Slf4j
+@Service
+public class PortfolioServiceImpl implements PortfolioService {
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("portfolio-refresh").daemon().factory());
+    private final PortfolioBook book = new PortfolioBook();
+    private final CurrencyProvider dataProvider;
+    private final CurrencyResolver currencyResolver;
+    private final MeterRegistry meterRegistry;
+    private final Duration refreshInterval;
+    private final int maxPortfolios;
+    private final int maxHoldings;
+    private final int maxCurrencies;
+
+    public PortfolioServiceImpl(CurrencyProvider dataProvider, CurrencyResolver currencyResolver,
+                                MeterRegistry meterRegistry,
+                                @Value("${cointrack.portfolio.refresh-interval}") Duration refreshInterval,
+                                @Value("${cointrack.portfolio.max-portfolios}") int maxPortfolios,
+                                @Value("${cointrack.portfolio.max-holdings}") int maxHoldings,
+                                @Value("${cointrack.portfolio.max-currencies}") int maxCurrencies) {
+        this.dataProvider = dataProvider;
+        this.currencyResolver = currencyResolver;
+        this.meterRegistry = meterRegistry;
+        this.refreshInterval = refreshInterval;
+        this.maxPortfolios = maxPortfolios;
+        this.maxHoldings = maxHoldings;
+        this.maxCurrencies = maxCurrencies;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("cointrack.portfolio.portfolios", book, PortfolioBook::size)
+                .description("Registered portfolios")
+                .register(meterRegistry);
+        FunctionCounter.builder("cointrack.portfolio.revaluations", book, PortfolioBook::getRevaluations)
+                .description("Positions revalued after a rate change")
+                .register(meterRegistry);
+        scheduler.scheduleAtFixedRate(this::refreshAll, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @EventListener
+    public void onRatesFetched(RatesFetchedEvent event) {
+        event.rates().forEach(book::apply);
+    }
+
+    @Override
+    public PortfolioValuationDTO putPortfolio(String id, PortfolioRequestDTO portfolio) {
+        if (portfolio.getHoldings().size() > maxHoldings) {
+            throw new RequestValidationException("Portfolio must not hold more than " + maxHoldings + " coins.");
+        }
+        if (portfolio.getCurrencies().size() > maxCurrencies) {
+            throw new RequestValidationException("Portfolio must not be valued in more than " + maxCurrencies + " currencies.");
+        }
+        if (book.size() >= maxPortfolios && book.valuation(id) == null) {
+            throw new RequestValidationException("Too many portfolios, remove some before adding new ones.");
+        }
+        Map<String, Double> holdings = new LinkedHashMap<>();
+        for (HoldingDTO holding : portfolio.getHoldings()) {
+            holdings.merge(currencyResolver.resolve(holding.getCoin()), holding.getQuantity(), Double::sum);
+        }
+        Set<String> currencies = new LinkedHashSet<>();
+        portfolio.getCurrencies().forEach(currency -> currencies.add(currency.trim().toLowerCase(Locale.ROOT)));
+        book.put(id, holdings, currencies);
+        holdings.keySet().forEach(coin -> refresh(coin, currencies));
+        return getValuation(id);
+    }
+
+    @Override
+    public PortfolioValuationDTO getValuation(String id) {
+        Map<String, Double> values = book.valuation(id);
+        if (values == null) {
+            throw new RequestValidationException("Portfolio " + id + " does not exist.");
+        }
+        return PortfolioValuationDTO.builder()
+                .id(id)
+                .values(values)
+                .complete(!values.containsValue(null))
+                .build();
+    }
+
+    @Override
+    public void removePortfolio(String id) {
+        if (!book.remove(id)) {
+            throw new RequestValidationException("Portfolio " + id + " does not exist.");
+        }
+    }
+
+    private void refreshAll() {
+        Set<String> currencies = book.getCurrencies();
+        for (String coin : book.getCoins()) {
+            refresh(coin, currencies);
+        }
+    }
+
+    private void refresh(String coin, Set<String> currencies) {
+        CompletableFuture<CurrencyRates> rates;
+        try {
+            rates = dataProvider.getCurrencyAsync(coin, currencies);
+        } catch (RuntimeException e) {
+            rates = CompletableFuture.failedFuture(e);
+        }
+        rates.whenComplete((result, error) -> {
+            if (error != null) {
+                log.debug("Refresh of {} rates for portfolios failed.", coin, error);
+                return;
+            }
+            book.apply(result);
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.cointrack.alert;
+
+import com.app.cointrack.alert.engine.Alert;
+import com.app.cointrack.alert.engine.AlertEngine;
+import com.app.cointrack.alert.engine.Direction;
+import com.app.cointrack.alert.engine.FiredAlert;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AlertEngineTest {
+    private final AlertEngine engine = new AlertEngine();
+
+    @Test
+    public void shouldFireOnlyCrossedAlerts() {
+        Alert at70k = engine.add("bitcoin", "usd", 70000, Direction.ABOVE);
+        Alert at72k = engine.add("bitcoin", "usd", 72000, Direction.ABOVE);
+        Alert at60k = engine.add("bitcoin", "usd", 60000, Direction.BELOW);
+        engine.add("bitcoin", "eur", 50000, Direction.ABOVE);
+
+        assertThat(engine.onRate("bitcoin", "usd", 65000)).isEmpty();
+        assertThat(alerts(engine.onRate("bitcoin", "usd", 71000))).containsExactly(at70k);
+        assertThat(alerts(engine.onRate("bitcoin", "usd", 75000))).containsExactly(at72k);
+        assertThat(alerts(engine.onRate("bitcoin", "usd", 59000))).containsExactly(at60k);
+        assertThat(engine.size()).isEqualTo(1);
+        assertThat(engine.lastRate("bitcoin", "usd")).isEqualTo(59000);
+        assertThat(engine.getWatchedPairs()).isEqualTo(Map.of("bitcoin", Set.of("eur")));
+    }
+
+    @Test
+    public void shouldFireAlertsInThresholdOrderAndOnlyOnce() {
+        for (int i = 0; i < 100_000; i++) {
+            engine.add("bitcoin", "usd", 50000 + i, Direction.ABOVE);
+        }
+
+        List<FiredAlert> fired = engine.onRate("bitcoin", "usd", 50009.5);
+
+        assertThat(fired).hasSize(10);
+        assertThat(fired.getFirst().alert().threshold()).isEqualTo(50000);
+        assertThat(fired.getLast().alert().threshold()).isEqualTo(50009);
+        assertThat(fired.getFirst().rate()).isEqualTo(50009.5);
+        assertThat(engine.onRate("bitcoin", "usd", 50009.5)).isEmpty();
+        assertThat(engine.get(fired.getFirst().alert().id())).isNull();
+        assertThat(engine.size()).isEqualTo(99_990);
+    }
+
+    @Test
+    public void shouldNotFireRemovedAlerts() {
+        Alert alert = engine.add("bitcoin", "usd", 70000, Direction.ABOVE);
+
+        assertThat(engine.remove(alert.id())).isTrue();
+        assertThat(engine.remove(alert.id())).isFalse();
+        assertThat(engine.onRate("bitcoin", "usd", 80000)).isEmpty();
+        assertThat(engine.size()).isZero();
+    }
+
+    private static List<Alert> alerts(List<FiredAlert> fired) {
+        return fired.stream().map(FiredAlert::alert).toList();
+    }
+}
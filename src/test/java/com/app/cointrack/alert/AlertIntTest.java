@@ -0,0 +1,68 @@
+package com.app.cointrack.alert;
+
+import com.app.cointrack.IntegrationTest;
+import com.app.cointrack.alert.dto.AlertRequestDTO;
+import com.app.cointrack.alert.engine.Direction;
+import com.app.cointrack.alert.engine.FiredAlert;
+import com.app.cointrack.alert.sink.AlertSink;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.rate.RatesFetchedEvent;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AlertIntTest extends IntegrationTest {
+    @MockitoBean
+    private CurrencyProvider providerMock;
+
+    @MockitoBean
+    private AlertSink alertSink;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void shouldDeliverAlertWhenFetchedRateCrossesThreshold() throws Exception {
+        when(providerMock.getCurrency("bitcoin", Set.of("usd"))).thenReturn(CurrencyRates.of("bitcoin", Map.of("usd", 65000.0)));
+        AlertRequestDTO dto = AlertRequestDTO.builder()
+                .currency("bitcoin")
+                .target("USD")
+                .threshold(70000)
+                .build();
+
+        String response = mockMvc.perform(post("/alerts")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(convertObjectToJsonBytes(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.direction").value("ABOVE"))
+                .andExpect(jsonPath("$.target").value("usd"))
+                .andReturn().getResponse().getContentAsString();
+        long id = mapper.readTree(response).get("id").asLong();
+
+        eventPublisher.publishEvent(new RatesFetchedEvent(List.of(CurrencyRates.of("bitcoin", Map.of("usd", 70500.0))), Instant.now()));
+
+        ArgumentCaptor<FiredAlert> fired = ArgumentCaptor.forClass(FiredAlert.class);
+        verify(alertSink, timeout(5000)).deliver(fired.capture());
+        assertThat(fired.getValue().alert().id()).isEqualTo(id);
+        assertThat(fired.getValue().alert().direction()).isEqualTo(Direction.ABOVE);
+        assertThat(fired.getValue().rate()).isEqualTo(70500.0);
+        mockMvc.perform(get("/alerts/" + id))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -4,6 +4,9 @@ import com.app.cointrack.IntegrationTest;
 import com.app.cointrack.coingecko.client.CoinGeckoClient;
 import com.app.cointrack.common.exception.ExternalApiCommunicationException;
 import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.history.store.TimeSeriesStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.mockwebserver.*;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
@@ -11,11 +14,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 public class CoinGeckoClientIntTest extends IntegrationTest {
     private static MockWebServer mockWebServer;
@@ -23,6 +33,12 @@ public class CoinGeckoClientIntTest extends IntegrationTest {
     @Autowired
     private CoinGeckoClient coinGeckoClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TimeSeriesStore historyStore;
+
     static {
         try {
             mockWebServer = new MockWebServer();
@@ -48,11 +64,32 @@ public class CoinGeckoClientIntTest extends IntegrationTest {
     public void shouldReturnSupportedCurrency() {
         setUpMockServer("?ids=bitcoin");
 
-        Map.Entry<String, Map<String, Double>> result = coinGeckoClient.getCurrency("bitcoin", Set.of());
+        CurrencyRates result = coinGeckoClient.getCurrency("bitcoin", Set.of());
+
+        assertThat(result.getSource()).isEqualTo("bitcoin");
+        assertThat(result.size()).isEqualTo(1);
+        assertThat(result.asMap()).containsEntry("usd", 40000.0);
+    }
+
+    @Test
+    public void shouldRecordRequestAndParsingTimings() {
+        setUpMockServer("?ids=bitcoin");
+
+        coinGeckoClient.getCurrency("bitcoin", Set.of());
+
+        assertThat(meterRegistry.get("cointrack.coingecko.requests")
+                .tags("endpoint", "simple_price", "outcome", "SUCCESS").timer().count()).isPositive();
+        assertThat(meterRegistry.get("cointrack.coingecko.parsing")
+                .tag("endpoint", "simple_price").timer().count()).isPositive();
+    }
+
+    @Test
+    public void shouldRecordFetchedRatesInHistory() {
+        setUpMockServer("?ids=bitcoin");
+
+        coinGeckoClient.getCurrency("bitcoin", Set.of());
 
-        assertThat(result.getKey()).isEqualTo("bitcoin");
-        assertThat(result.getValue().size()).isEqualTo(1);
-        assertThat(result.getValue()).containsEntry("usd", 40000.0);
+        assertThat(historyStore.rateAt("bitcoin", "usd", System.currentTimeMillis()).rate()).isEqualTo(40000.0);
     }
 
     @Test
@@ -78,12 +115,109 @@ public class CoinGeckoClientIntTest extends IntegrationTest {
         setUpMockServerWithFilteredResponse();
 
         Set<String> filters = Set.of("usd", "eur");
-        Map.Entry<String, Map<String, Double>> result = coinGeckoClient.getCurrency("bitcoin", filters);
+        CurrencyRates result = coinGeckoClient.getCurrency("bitcoin", filters);
+
+        assertThat(result.getSource()).isEqualTo("bitcoin");
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(result.asMap()).containsEntry("usd", 40000.0);
+        assertThat(result.asMap()).containsEntry("eur", 35000.0);
+    }
+
+    @Test
+    public void shouldServeUppercaseFilterThroughProviderChain() throws Exception {
+        setUpMockServerWithFilteredResponse();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/currencies/bitcoin?filter=USD"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.source").value("bitcoin"))
+                .andExpect(jsonPath("$.rates.usd").value(40000.0));
+    }
+
+    @Test
+    public void shouldShareRatesBetweenMixedCaseFilters() throws Exception {
+        AtomicInteger priceRequests = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().contains("/simple/price")) {
+                    priceRequests.incrementAndGet();
+                    return new MockResponse()
+                            .setResponseCode(200)
+                            .setBody("{\"bitcoin\":{\"usd\":40000.0, \"chf\":36000.0}}")
+                            .addHeader("Content-Type", "application/json");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+
+        for (String filter : List.of("CHF", "Chf", "chf")) {
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/currencies/bitcoin?filter=" + filter))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.rates.chf").value(36000.0));
+        }
+
+        assertThat(priceRequests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReturnCurrencyAsynchronously() {
+        setUpMockServerWithFilteredResponse();
+
+        CurrencyRates result = coinGeckoClient.getCurrencyAsync("bitcoin", Set.of("usd", "eur")).join();
+
+        assertThat(result.getSource()).isEqualTo("bitcoin");
+        assertThat(result.asMap()).containsEntry("usd", 40000.0);
+        assertThat(result.asMap()).containsEntry("eur", 35000.0);
+    }
+
+    @Test
+    public void shouldCompleteAsynchronousCallExceptionallyOnApiError() {
+        setUpMockServerWithErrorResponse();
+
+        CompletionException error = Assertions.assertThrows(CompletionException.class,
+                () -> coinGeckoClient.getCurrencyAsync("bitcoin", Set.of("usd")).join());
+        assertThat(error.getCause()).isInstanceOf(ExternalApiCommunicationException.class);
+    }
+
+    @Test
+    public void shouldReturnManyCurrenciesSkippingUnsupportedOnes() {
+        setUpMockServerWithFilteredResponse();
+
+        Map<String, CurrencyRates> result =
+                coinGeckoClient.getCurrencies(Set.of("bitcoin", "unsupportedCurrency"), Set.of("usd", "eur"));
+
+        assertThat(result).containsOnlyKeys("bitcoin");
+        assertThat(result.get("bitcoin").asMap()).containsEntry("usd", 40000.0);
+        assertThat(result.get("bitcoin").asMap()).containsEntry("eur", 35000.0);
+    }
+
+    @Test
+    public void shouldReturnBitcoinBasedExchangeRates() {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().equals("//exchange_rates")) {
+                    return new MockResponse()
+                            .setResponseCode(200)
+                            .setBody("{\"rates\":{\"btc\":{\"name\":\"Bitcoin\",\"unit\":\"BTC\",\"value\":1.0,\"type\":\"crypto\"},"
+                                    + "\"usd\":{\"name\":\"US Dollar\",\"unit\":\"$\",\"value\":60000,\"type\":\"fiat\"}}}")
+                            .addHeader("Content-Type", "application/json");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+
+        CurrencyRates result = coinGeckoClient.getReferenceRates();
 
-        assertThat(result.getKey()).isEqualTo("bitcoin");
-        assertThat(result.getValue().size()).isEqualTo(2);
-        assertThat(result.getValue()).containsEntry("usd", 40000.0);
-        assertThat(result.getValue()).containsEntry("eur", 35000.0);
+        assertThat(result.getSource()).isEqualTo("bitcoin");
+        assertThat(result.asMap()).containsExactly(Map.entry("btc", 1.0), Map.entry("usd", 60000.0));
     }
 
     private static void setUpMockServer(String priceRequestParameters) {
@@ -0,0 +1,44 @@
+package com.app.cointrack.coingecko;
+
+import com.app.cointrack.coingecko.registry.CoinIndex;
+import com.app.cointrack.coingecko.registry.CoinSet;
+import com.app.cointrack.currency.resolver.CurrencyMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CoinIndexTest {
+    private final CoinIndex index = CoinIndex.of(CoinSet.builder()
+            .add("bitcoin", "btc", "Bitcoin", 1)
+            .add("batcat", "btc", "Batcat", CoinSet.UNRANKED)
+            .add("bitcoin-cash", "bch", "Bitcoin Cash", 15)
+            .add("ethereum", "eth", "Ethereum", 2)
+            .add("eth", "eth2", "Ethereum Wrapper", 900)
+            .build());
+
+    @Test
+    public void shouldResolveIdSymbolAndNameIgnoringCase() {
+        assertThat(index.resolve("bitcoin")).isEqualTo("bitcoin");
+        assertThat(index.resolve("BTC")).isEqualTo("bitcoin");
+        assertThat(index.resolve("Bitcoin Cash")).isEqualTo("bitcoin-cash");
+        assertThat(index.resolve("unsupportedCurrency")).isNull();
+    }
+
+    @Test
+    public void shouldPreferIdOverSymbolOfOtherCoin() {
+        assertThat(index.resolve("eth")).isEqualTo("eth");
+        assertThat(index.resolve("Ethereum")).isEqualTo("ethereum");
+    }
+
+    @Test
+    public void shouldSearchByPrefixOrderedByMarketCapRank() {
+        List<CurrencyMatch> matches = index.search("Bi", 10);
+
+        assertThat(matches).extracting(CurrencyMatch::id).containsExactly("bitcoin", "bitcoin-cash");
+        assertThat(matches.getFirst().marketCapRank()).isEqualTo(1);
+        assertThat(index.search("b", 1)).extracting(CurrencyMatch::id).containsExactly("bitcoin");
+        assertThat(index.search("btc", 10)).extracting(CurrencyMatch::id).containsExactly("bitcoin", "batcat");
+    }
+}
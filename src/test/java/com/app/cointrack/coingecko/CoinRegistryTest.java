@@ -0,0 +1,118 @@
+package com.app.cointrack.coingecko;
+
+import com.app.cointrack.coingecko.registry.CoinGeckoCurrencyResolver;
+import com.app.cointrack.coingecko.registry.CoinRegistry;
+import com.app.cointrack.coingecko.registry.CoinSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CoinRegistryTest {
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void shouldLoadCoinsFromSourceAndPersistThem() throws InterruptedException {
+        Path file = directory.resolve("coins.bin");
+        CoinRegistry registry = registry(file);
+
+        registry.start(() -> CoinSet.of(Map.of("bitcoin", "btc", "ethereum", "eth")));
+
+        CoinSet coins = registry.getCoins();
+        awaitFile(file);
+        registry.shutdown();
+        assertThat(registry.isLoaded()).isTrue();
+        assertThat(coins.contains("bitcoin")).isTrue();
+        assertThat(coins.symbolOf("ethereum")).isEqualTo("eth");
+        assertThat(file).exists();
+    }
+
+    @Test
+    public void shouldServePersistedCoinsWhenSourceIsUnavailable() throws InterruptedException {
+        Path file = directory.resolve("coins.bin");
+        CoinRegistry first = registry(file);
+        first.start(() -> CoinSet.of(Map.of("bitcoin", "btc", "tether", "usdt")));
+        first.getCoins();
+        awaitFile(file);
+        first.shutdown();
+
+        CoinRegistry second = registry(file);
+        second.start(() -> {
+            throw new IOException("CoinGecko is down");
+        });
+
+        CoinSet coins = second.getCoins();
+        second.shutdown();
+        assertThat(coins.size()).isEqualTo(2);
+        assertThat(coins.contains("tether")).isTrue();
+        assertThat(coins.contains("unsupportedCurrency")).isFalse();
+    }
+
+    @Test
+    public void shouldCompleteCoinsAsynchronouslyOnceFirstSetIsLoaded() throws Exception {
+        CoinRegistry registry = registry(directory.resolve("coins.bin"));
+        CountDownLatch release = new CountDownLatch(1);
+        registry.start(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            return CoinSet.of(Map.of("bitcoin", "btc"));
+        });
+
+        CompletableFuture<CoinSet> coins = registry.getCoinsAsync();
+        assertThat(coins).isNotDone();
+        release.countDown();
+
+        assertThat(coins.get(5, TimeUnit.SECONDS).contains("bitcoin")).isTrue();
+        assertThat(registry.getCoinsAsync()).isDone();
+        registry.shutdown();
+    }
+
+    @Test
+    public void shouldResolveSymbolsOnceFirstSetIsLoaded() throws Exception {
+        CoinRegistry registry = registry(directory.resolve("coins.bin"));
+        CoinGeckoCurrencyResolver resolver = new CoinGeckoCurrencyResolver(registry);
+        CountDownLatch release = new CountDownLatch(1);
+        registry.start(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            return CoinSet.of(Map.of("bitcoin", "btc"));
+        });
+
+        CompletableFuture<String> async = resolver.resolveAsync("btc");
+        CompletableFuture<String> blocking = CompletableFuture.supplyAsync(() -> resolver.resolve("btc"), Thread::startVirtualThread);
+        assertThat(async).isNotDone();
+        release.countDown();
+
+        assertThat(async.get(5, TimeUnit.SECONDS)).isEqualTo("bitcoin");
+        assertThat(blocking.get(5, TimeUnit.SECONDS)).isEqualTo("bitcoin");
+        registry.shutdown();
+    }
+
+    private static void awaitFile(Path file) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Files.exists(file) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static CoinRegistry registry(Path file) {
+        return new CoinRegistry(file.toString(), Duration.ofHours(6), Duration.ofSeconds(30), Duration.ofSeconds(5));
+    }
+}
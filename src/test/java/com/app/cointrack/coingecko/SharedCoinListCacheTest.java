@@ -0,0 +1,52 @@
+package com.app.cointrack.coingecko;
+
+import com.app.cointrack.coingecko.registry.CoinRegistry.CoinListSource;
+import com.app.cointrack.coingecko.registry.CoinSet;
+import com.app.cointrack.coingecko.registry.SharedCoinListCache;
+import com.app.cointrack.currency.provider.shared.InMemorySharedRateCache;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedCoinListCacheTest {
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    @Test
+    public void shouldDownloadCoinListOnceForAllInstances() throws IOException {
+        InMemorySharedRateCache cache = new InMemorySharedRateCache();
+        CoinListSource first = sharedCoinList(cache).share(this::download);
+        CoinListSource second = sharedCoinList(cache).share(this::download);
+
+        CoinSet downloaded = first.load();
+        CoinSet shared = second.load();
+
+        assertThat(downloads.get()).isEqualTo(1);
+        assertThat(shared.size()).isEqualTo(downloaded.size());
+        assertThat(shared.symbolOf("ethereum")).isEqualTo("eth");
+    }
+
+    @Test
+    public void shouldUseSourceDirectlyWithoutSharedCache() throws IOException {
+        CoinListSource source = sharedCoinList(null).share(this::download);
+
+        source.load();
+        source.load();
+
+        assertThat(downloads.get()).isEqualTo(2);
+    }
+
+    private CoinSet download() {
+        downloads.incrementAndGet();
+        return CoinSet.of(Map.of("bitcoin", "btc", "ethereum", "eth"));
+    }
+
+    private static SharedCoinListCache sharedCoinList(InMemorySharedRateCache cache) {
+        return new SharedCoinListCache(cache, Duration.ofHours(6), Duration.ofSeconds(10), Duration.ofSeconds(2),
+                Duration.ofMillis(5));
+    }
+}
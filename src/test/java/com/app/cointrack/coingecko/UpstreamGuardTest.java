@@ -0,0 +1,144 @@
+package com.app.cointrack.coingecko;
+
+import com.app.cointrack.coingecko.guard.AdaptiveConcurrencyLimit;
+import com.app.cointrack.coingecko.guard.CircuitBreaker;
+import com.app.cointrack.coingecko.guard.TokenBucket;
+import com.app.cointrack.coingecko.guard.UpstreamGuard;
+import com.app.cointrack.coingecko.guard.UpstreamUnavailableException;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UpstreamGuardTest {
+    private final AtomicLong time = new AtomicLong();
+    private MockWebServer mockWebServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void shouldFailFastWhileCircuitIsOpenAndCloseAfterSuccessfulProbe() throws IOException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(30), time::get);
+        OkHttpClient client = client(new TokenBucket(1000, Duration.ofSeconds(1), 1000, time::get), circuitBreaker);
+        for (int i = 0; i < 4; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+            call(client).close();
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> call(client)).isInstanceOf(UpstreamUnavailableException.class);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(4);
+
+        time.addAndGet(Duration.ofSeconds(31).toNanos());
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        call(client).close();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void shouldKeepCircuitOpenForRetryAfterOfThrottledResponse() throws IOException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(20, 10, 50, Duration.ofSeconds(30), time::get);
+        OkHttpClient client = client(new TokenBucket(1000, Duration.ofSeconds(1), 1000, time::get), circuitBreaker);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "120"));
+        call(client).close();
+
+        time.addAndGet(Duration.ofSeconds(60).toNanos());
+        assertThatThrownBy(() -> call(client)).isInstanceOf(UpstreamUnavailableException.class);
+
+        time.addAndGet(Duration.ofSeconds(61).toNanos());
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        assertThat(call(client).code()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldRejectCallsOverRateLimit() throws IOException {
+        OkHttpClient client = client(new TokenBucket(2, Duration.ofMinutes(1), 2, time::get),
+                new CircuitBreaker(20, 10, 50, Duration.ofSeconds(30), time::get));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        call(client).close();
+        call(client).close();
+
+        assertThatThrownBy(() -> call(client)).isInstanceOf(UpstreamUnavailableException.class);
+
+        time.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(call(client).code()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldRefundRatePermitOfCallRejectedOnConcurrency() throws InterruptedException, IOException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1, Duration.ofSeconds(10), 0.5);
+        OkHttpClient client = client(new TokenBucket(1, Duration.ofMinutes(1), 1, time::get), limit,
+                new CircuitBreaker(20, 10, 50, Duration.ofSeconds(30), time::get));
+        assertThat(limit.acquire(0)).isTrue();
+
+        assertThatThrownBy(() -> call(client)).isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("concurrency");
+
+        limit.cancel();
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        assertThat(call(client).code()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldShrinkConcurrencyLimitOnOverloadAndGrowItBack() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 16, Duration.ofSeconds(1), 0.5);
+
+        assertThat(limit.acquire(0)).isTrue();
+        limit.release(Duration.ofSeconds(2).toNanos(), false);
+        assertThat(limit.getLimit()).isEqualTo(4);
+        assertThat(limit.acquire(0)).isTrue();
+        limit.release(0, true);
+        assertThat(limit.getLimit()).isEqualTo(2);
+
+        assertThat(limit.acquire(0)).isTrue();
+        assertThat(limit.acquire(0)).isTrue();
+        assertThat(limit.acquire(0)).isFalse();
+        limit.release(0, false);
+        limit.release(0, false);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.acquire(0)).isTrue();
+            limit.release(Duration.ofMillis(10).toNanos(), false);
+        }
+        assertThat(limit.getLimit()).isGreaterThan(2);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    private OkHttpClient client(TokenBucket rateLimit, CircuitBreaker circuitBreaker) {
+        return client(rateLimit, new AdaptiveConcurrencyLimit(8, 1, 16, Duration.ofSeconds(10), 0.5), circuitBreaker);
+    }
+
+    private OkHttpClient client(TokenBucket rateLimit, AdaptiveConcurrencyLimit concurrencyLimit,
+                                CircuitBreaker circuitBreaker) {
+        UpstreamGuard guard = new UpstreamGuard(rateLimit, concurrencyLimit, circuitBreaker, Duration.ZERO);
+        return new OkHttpClient.Builder()
+                .addInterceptor(guard)
+                .build();
+    }
+
+    private Response call(OkHttpClient client) throws IOException {
+        return client.newCall(new Request.Builder().url(mockWebServer.url("/simple/price")).build()).execute();
+    }
+}
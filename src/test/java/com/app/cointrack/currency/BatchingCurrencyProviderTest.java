@@ -0,0 +1,90 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.impl.BatchingCurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchingCurrencyProviderTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Set<String>> upstreamCurrencies = new CopyOnWriteArrayList<>();
+    private final List<Set<String>> upstreamFilters = new CopyOnWriteArrayList<>();
+    private final CurrencyProvider upstream = new CurrencyProvider() {
+        @Override
+        public CurrencyRates getCurrency(String currency, Set<String> filters) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, CurrencyRates> getCurrencies(Set<String> currencies, Set<String> filters) {
+            upstreamCurrencies.add(currencies);
+            upstreamFilters.add(filters);
+            Map<String, CurrencyRates> result = new HashMap<>();
+            currencies.stream()
+                    .filter(currency -> !currency.equals("unsupportedCurrency"))
+                    .forEach(currency -> result.put(currency, CurrencyRates.of(currency, Map.of("usd", 1.0, "eur", 2.0, "gbp", 3.0))));
+            return result;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldResolveRequestsWithinWindowWithSingleUpstreamCall() throws Exception {
+        BatchingCurrencyProvider provider =
+                new BatchingCurrencyProvider(upstream, Duration.ofMillis(200), 100, scheduler, executor);
+
+        Future<CurrencyRates> bitcoin =
+                executor.submit(() -> provider.getCurrency("bitcoin", Set.of("usd")));
+        Future<CurrencyRates> ethereum =
+                executor.submit(() -> provider.getCurrency("ethereum", Set.of("eur", "gbp")));
+
+        assertThat(bitcoin.get().getSource()).isEqualTo("bitcoin");
+        assertThat(bitcoin.get().asMap()).containsExactly(Map.entry("usd", 1.0));
+        assertThat(ethereum.get().getSource()).isEqualTo("ethereum");
+        assertThat(ethereum.get().asMap()).containsOnlyKeys("eur", "gbp");
+        assertThat(upstreamCurrencies).containsExactly(Set.of("bitcoin", "ethereum"));
+        assertThat(upstreamFilters).containsExactly(Set.of("usd", "eur", "gbp"));
+        assertThat(provider.getStats().batchedRequests()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldFlushWhenBatchIsFull() {
+        BatchingCurrencyProvider provider =
+                new BatchingCurrencyProvider(upstream, Duration.ofHours(1), 1, scheduler, executor);
+
+        CurrencyRates result = provider.getCurrency("bitcoin", Set.of("usd"));
+
+        assertThat(result.asMap()).containsExactly(Map.entry("usd", 1.0));
+        assertThat(upstreamCurrencies).containsExactly(Set.of("bitcoin"));
+    }
+
+    @Test
+    public void shouldRejectUnsupportedCurrencyWithoutFailingOthers() throws Exception {
+        BatchingCurrencyProvider provider =
+                new BatchingCurrencyProvider(upstream, Duration.ofMillis(200), 100, scheduler, executor);
+
+        Future<CurrencyRates> bitcoin =
+                executor.submit(() -> provider.getCurrency("bitcoin", Set.of("usd")));
+        Future<CurrencyRates> unsupported =
+                executor.submit(() -> provider.getCurrency("unsupportedCurrency", Set.of("usd")));
+
+        assertThat(bitcoin.get().asMap()).containsEntry("usd", 1.0);
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class, unsupported::get);
+        assertThat(error.getCause()).isInstanceOf(RequestValidationException.class);
+    }
+}
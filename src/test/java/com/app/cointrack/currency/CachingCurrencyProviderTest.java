@@ -0,0 +1,118 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.common.exception.ExternalApiCommunicationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CachingCurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CachingCurrencyProvider.CacheStats;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CachingCurrencyProviderTest {
+    private final AtomicLong time = new AtomicLong();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final List<Runnable> scheduledRefreshes = new ArrayList<>();
+    private double bitcoinUsd;
+    private boolean upstreamAvailable;
+    private CachingCurrencyProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        bitcoinUsd = 40000.0;
+        upstreamAvailable = true;
+        CurrencyProvider upstream = (currency, filters) -> {
+            upstreamCalls.incrementAndGet();
+            if (!upstreamAvailable) {
+                throw new ExternalApiCommunicationException("Problem during communication with CoinGecko API.");
+            }
+            return CurrencyRates.of(currency, Map.of("usd", bitcoinUsd, "eur", 35000.0));
+        };
+        Ticker ticker = time::get;
+        provider = new CachingCurrencyProvider(upstream, Duration.ofSeconds(30), Duration.ofMinutes(5),
+                Duration.ofHours(1), 4,
+                scheduledRefreshes::add, ticker);
+    }
+
+    @Test
+    public void shouldServeRepeatedRequestsFromCache() {
+        provider.getCurrency("bitcoin", Set.of("usd", "eur"));
+        CurrencyRates result = provider.getCurrency("bitcoin", Set.of("usd"));
+
+        assertThat(result.getSource()).isEqualTo("bitcoin");
+        assertThat(result.asMap()).containsExactly(Map.entry("usd", 40000.0));
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        CacheStats stats = provider.getStats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldServeStaleRateWhileSingleRefreshIsRunning() {
+        long version = provider.getCurrency("bitcoin", Set.of("usd")).getVersion();
+        bitcoinUsd = 41000.0;
+        time.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertThat(provider.getCurrency("bitcoin", Set.of("usd")).asMap()).containsEntry("usd", 40000.0);
+        assertThat(provider.getCurrency("bitcoin", Set.of("usd")).getVersion()).isEqualTo(version);
+        assertThat(scheduledRefreshes).hasSize(1);
+
+        scheduledRefreshes.removeFirst().run();
+
+        CurrencyRates refreshed = provider.getCurrency("bitcoin", Set.of("usd"));
+        assertThat(refreshed.asMap()).containsEntry("usd", 41000.0);
+        assertThat(refreshed.getVersion()).isGreaterThan(version);
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(provider.getStats().staleHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldFetchAgainAfterStaleWindowExpires() {
+        provider.getCurrency("bitcoin", Set.of("usd"));
+        time.addAndGet(Duration.ofMinutes(10).toNanos());
+
+        provider.getCurrency("bitcoin", Set.of("usd"));
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(scheduledRefreshes).isEmpty();
+        assertThat(provider.getStats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldServeExpiredRatesWhileUpstreamIsUnavailable() {
+        provider.getCurrency("bitcoin", Set.of("usd"));
+        time.addAndGet(Duration.ofMinutes(10).toNanos());
+        upstreamAvailable = false;
+
+        assertThat(provider.getCurrency("bitcoin", Set.of("usd")).asMap()).containsEntry("usd", 40000.0);
+        assertThat(provider.getCurrencyAsync("bitcoin", Set.of("usd")).join().asMap()).containsEntry("usd", 40000.0);
+        assertThat(provider.getStats().fallbacks()).isEqualTo(2);
+
+        time.addAndGet(Duration.ofHours(1).toNanos());
+
+        assertThatThrownBy(() -> provider.getCurrency("bitcoin", Set.of("usd")))
+                .isInstanceOf(ExternalApiCommunicationException.class);
+    }
+
+    @Test
+    public void shouldCountEvictionsWhenMaximumSizeIsExceeded() {
+        for (int i = 0; i < 10; i++) {
+            provider.getCurrency("coin-" + i, Set.of("usd", "eur"));
+        }
+
+        CacheStats stats = provider.getStats();
+        assertThat(stats.size()).isLessThanOrEqualTo(4);
+        assertThat(stats.evictions()).isEqualTo(20 - stats.size());
+    }
+}
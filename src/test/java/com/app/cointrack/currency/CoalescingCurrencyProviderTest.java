@@ -0,0 +1,130 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.common.exception.ExternalApiCommunicationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CoalescingCurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CoalescingCurrencyProviderTest {
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch upstreamStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseUpstream = new CountDownLatch(1);
+
+    @Test
+    public void shouldShareSingleUpstreamCallBetweenConcurrentCallers() throws Exception {
+        CoalescingCurrencyProvider provider = new CoalescingCurrencyProvider(blockingUpstream(null));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CurrencyRates> leader =
+                    executor.submit(() -> provider.getCurrency("bitcoin", Set.of("usd", "eur")));
+            upstreamStarted.await();
+            List<Future<CurrencyRates>> followers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                followers.add(executor.submit(() -> provider.getCurrency("bitcoin", Set.of("usd"))));
+            }
+            awaitCoalesced(provider, 10);
+            releaseUpstream.countDown();
+
+            assertThat(leader.get().asMap()).containsOnlyKeys("usd", "eur");
+            for (Future<CurrencyRates> follower : followers) {
+                assertThat(follower.get().getSource()).isEqualTo("bitcoin");
+                assertThat(follower.get().asMap()).containsExactly(Map.entry("usd", 40000.0));
+            }
+        }
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldPropagateUpstreamFailureToAllCallers() throws Exception {
+        ExternalApiCommunicationException failure = new ExternalApiCommunicationException("External API error");
+        CoalescingCurrencyProvider provider = new CoalescingCurrencyProvider(blockingUpstream(failure));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> leader = executor.submit(() -> provider.getCurrency("bitcoin", Set.of("usd")));
+            upstreamStarted.await();
+            Future<?> follower = executor.submit(() -> provider.getCurrency("bitcoin", Set.of("usd")));
+            awaitCoalesced(provider, 1);
+            releaseUpstream.countDown();
+
+            ExecutionException leaderError = Assertions.assertThrows(ExecutionException.class, leader::get);
+            ExecutionException followerError = Assertions.assertThrows(ExecutionException.class, follower::get);
+            assertThat(leaderError.getCause()).isSameAs(failure);
+            assertThat(followerError.getCause()).isSameAs(failure);
+        }
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCompleteFollowersWhenLeaderIsCancelled() {
+        CompletableFuture<CurrencyRates> upstream = new CompletableFuture<>();
+        CoalescingCurrencyProvider provider = new CoalescingCurrencyProvider(new CurrencyProvider() {
+            @Override
+            public CurrencyRates getCurrency(String currency, Set<String> filters) {
+                return getCurrencyAsync(currency, filters).join();
+            }
+
+            @Override
+            public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+                upstreamCalls.incrementAndGet();
+                return upstream;
+            }
+        });
+
+        CompletableFuture<CurrencyRates> leader = provider.getCurrencyAsync("bitcoin", Set.of("usd", "eur"));
+        CompletableFuture<CurrencyRates> follower = provider.getCurrencyAsync("bitcoin", Set.of("usd"));
+        leader.cancel(true);
+        upstream.complete(CurrencyRates.of("bitcoin", Map.of("usd", 40000.0, "eur", 35000.0)));
+
+        assertThat(leader).isCancelled();
+        assertThat(follower.join().asMap()).containsExactly(Map.entry("usd", 40000.0));
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotShareCallsForUncoveredFilters() {
+        CoalescingCurrencyProvider provider = new CoalescingCurrencyProvider((currency, filters) -> {
+            upstreamCalls.incrementAndGet();
+            return CurrencyRates.of(currency, Map.of("usd", 40000.0));
+        });
+
+        provider.getCurrency("bitcoin", Set.of("usd"));
+        provider.getCurrency("bitcoin", Set.of("usd"));
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(provider.getCoalescedRequests()).isZero();
+    }
+
+    private CurrencyProvider blockingUpstream(RuntimeException failure) {
+        return (currency, filters) -> {
+            upstreamCalls.incrementAndGet();
+            upstreamStarted.countDown();
+            try {
+                releaseUpstream.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return CurrencyRates.of(currency, Map.of("usd", 40000.0, "eur", 35000.0));
+        };
+    }
+
+    private static void awaitCoalesced(CoalescingCurrencyProvider provider, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (provider.getCoalescedRequests() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
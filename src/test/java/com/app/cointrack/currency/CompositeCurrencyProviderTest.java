@@ -0,0 +1,123 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.common.exception.ExternalApiCommunicationException;
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CompositeCurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CompositeCurrencyProvider.Mode;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompositeCurrencyProviderTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldHedgeToSecondaryWhenPrimaryIsSlow() {
+        AtomicInteger secondaryCalls = new AtomicInteger();
+        CompositeCurrencyProvider provider = composite(Mode.FIRST,
+                answering(40000.0, Duration.ofSeconds(5)),
+                (currency, filters) -> {
+                    secondaryCalls.incrementAndGet();
+                    return CurrencyRates.of(currency, Map.of("usd", 40100.0));
+                });
+
+        CurrencyRates result = provider.getCurrency("bitcoin", Set.of("usd"));
+
+        assertThat(result.asMap()).containsEntry("usd", 40100.0);
+        assertThat(secondaryCalls.get()).isEqualTo(1);
+        assertThat(provider.getHedgedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCallSecondaryWhenPrimaryAnswersInTime() {
+        AtomicInteger secondaryCalls = new AtomicInteger();
+        CompositeCurrencyProvider provider = composite(Mode.FIRST,
+                answering(40000.0, Duration.ZERO),
+                (currency, filters) -> {
+                    secondaryCalls.incrementAndGet();
+                    return CurrencyRates.of(currency, Map.of("usd", 40100.0));
+                });
+
+        assertThat(provider.getCurrency("bitcoin", Set.of("usd")).asMap()).containsEntry("usd", 40000.0);
+        assertThat(secondaryCalls.get()).isZero();
+        assertThat(provider.getHedgedRequests()).isZero();
+    }
+
+    @Test
+    public void shouldFailOverImmediatelyWhenPrimaryFails() {
+        CompositeCurrencyProvider provider = composite(Mode.FIRST,
+                (currency, filters) -> {
+                    throw new ExternalApiCommunicationException("Problem during communication with CoinGecko API.");
+                },
+                answering(40100.0, Duration.ZERO));
+
+        assertThat(provider.getCurrency("bitcoin", Set.of("usd")).asMap()).containsEntry("usd", 40100.0);
+        assertThat(provider.getHedgedRequests()).isZero();
+    }
+
+    @Test
+    public void shouldReportErrorOfPrimaryWhenAllProvidersFail() {
+        CompositeCurrencyProvider provider = composite(Mode.FIRST,
+                (currency, filters) -> {
+                    throw new RequestValidationException("Given Currency is not supported.");
+                },
+                (currency, filters) -> {
+                    throw new ExternalApiCommunicationException("Problem during communication with CoinGecko API.");
+                });
+
+        Assertions.assertThrows(RequestValidationException.class, () -> provider.getCurrency("unsupportedCurrency", Set.of("usd")));
+    }
+
+    @Test
+    public void shouldReturnMedianOfProviderAnswers() {
+        CompositeCurrencyProvider provider = composite(Mode.MEDIAN,
+                (currency, filters) -> CurrencyRates.of(currency, Map.of("usd", 40000.0, "eur", 36000.0)),
+                (currency, filters) -> CurrencyRates.of(currency, Map.of("usd", 40200.0, "eur", 35000.0)),
+                (currency, filters) -> CurrencyRates.of(currency, Map.of("usd", 90000.0)),
+                answering(1.0, Duration.ofSeconds(5)));
+
+        CurrencyRates result = provider.getCurrency("bitcoin", Set.of("usd", "eur"));
+
+        assertThat(result.getSource()).isEqualTo("bitcoin");
+        assertThat(result.asMap()).containsEntry("usd", 40200.0).containsEntry("eur", 35500.0);
+    }
+
+    private CompositeCurrencyProvider composite(Mode mode, CurrencyProvider... providers) {
+        return new CompositeCurrencyProvider(List.of(providers), mode, 95, Duration.ofMillis(50),
+                Duration.ofMillis(10), Duration.ofMillis(500), scheduler);
+    }
+
+    private static CurrencyProvider answering(double usd, Duration delay) {
+        return new CurrencyProvider() {
+            @Override
+            public CurrencyRates getCurrency(String currency, Set<String> filters) {
+                return CurrencyRates.of(currency, Map.of("usd", usd));
+            }
+
+            @Override
+            public CompletableFuture<CurrencyRates> getCurrencyAsync(String currency, Set<String> filters) {
+                return CompletableFuture.supplyAsync(() -> getCurrency(currency, filters),
+                        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS));
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.currency.provider.CrossRateSource;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.impl.CrossRateCurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class CrossRateCurrencyProviderTest {
+    private final AtomicLong time = new AtomicLong();
+    private final List<Set<String>> upstreamFilters = new CopyOnWriteArrayList<>();
+    private CrossRateCurrencyProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        CurrencyProvider upstream = (currency, filters) -> {
+            upstreamFilters.add(filters);
+            Map<String, Double> rates = new HashMap<>();
+            filters.forEach(filter -> rates.put(filter, switch (filter) {
+                case "usd" -> 3000.0;
+                case "eur" -> 2800.0;
+                default -> 1.0;
+            }));
+            return CurrencyRates.of(currency, rates);
+        };
+        CrossRateSource crossRates = () -> CurrencyRates.of("bitcoin", Map.of("usd", 60000.0, "eur", 54000.0, "pln", 240000.0));
+        Ticker ticker = time::get;
+        provider = new CrossRateCurrencyProvider(upstream, crossRates, "usd", Duration.ofSeconds(60),
+                Duration.ofSeconds(30), 100, Runnable::run, ticker);
+    }
+
+    @Test
+    public void shouldDeriveRequestedPairsThroughPivotWithoutUpstreamCall() {
+        CurrencyRates first = provider.getCurrency("ethereum", Set.of("eur"));
+        CurrencyRates derived = provider.getCurrency("ethereum", Set.of("eur", "pln", "usd"));
+
+        assertThat(first.asMap()).containsExactly(Map.entry("eur", 2800.0));
+        assertThat(upstreamFilters).containsExactly(Set.of("eur", "usd"));
+        assertThat(derived.getSource()).isEqualTo("ethereum");
+        assertThat(derived.rate("usd")).isEqualTo(3000.0);
+        assertThat(derived.rate("eur")).isCloseTo(2700.0, within(1e-9));
+        assertThat(derived.rate("pln")).isCloseTo(12000.0, within(1e-9));
+        assertThat(provider.getDerivedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCallUpstreamWhenPivotRateIsTooStale() {
+        provider.getCurrency("ethereum", Set.of("usd"));
+        time.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        provider.getCurrency("ethereum", Set.of("eur"));
+
+        assertThat(upstreamFilters).hasSize(2);
+        assertThat(provider.getDerivedRequests()).isZero();
+    }
+
+    @Test
+    public void shouldCallUpstreamWhenNoPathToTargetExists() {
+        provider.getCurrency("ethereum", Set.of("usd"));
+
+        CurrencyRates result = provider.getCurrency("ethereum", Set.of("eur", "xau"));
+
+        assertThat(upstreamFilters).containsExactly(Set.of("usd"), Set.of("eur", "xau", "usd"));
+        assertThat(result.asMap()).containsOnlyKeys("eur", "xau");
+    }
+}
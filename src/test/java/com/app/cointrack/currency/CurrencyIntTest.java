@@ -3,21 +3,41 @@ package com.app.cointrack.currency;
 import com.app.cointrack.IntegrationTest;
 import com.app.cointrack.common.exception.ExternalApiCommunicationException;
 import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.dto.BulkExchangeRequestDTO;
 import com.app.cointrack.currency.dto.ExchangeRequestDTO;
 import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.resolver.CurrencyResolver;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
-import java.util.AbstractMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -27,6 +47,12 @@ public class CurrencyIntTest extends IntegrationTest {
     @MockitoBean
     private CurrencyProvider providerMock;
 
+    @MockitoSpyBean
+    private CurrencyResolver currencyResolverSpy;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -35,28 +61,77 @@ public class CurrencyIntTest extends IntegrationTest {
     @Test
     public void shouldReturnCurrenciesList() throws Exception {
         String testCurrency = "USD";
-        Set<String> testFilters = Set.of("EUR", "GBP");
+        Set<String> testFilters = Set.of("eur", "gbp");
         Map<String, Double> rates = Map.of(
-                "EUR", 0.85,
-                "GBP", 0.75
+                "eur", 0.85,
+                "gbp", 0.75
         );
-        Map.Entry<String, Map<String, Double>> mockResponse =
-                new AbstractMap.SimpleEntry<>(testCurrency, rates);
-        when(providerMock.getCurrency(testCurrency, testFilters)).thenReturn(mockResponse);
+        CurrencyRates mockResponse = CurrencyRates.of(testCurrency, rates);
+        when(providerMock.getCurrencyAsync(testCurrency, testFilters)).thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/currencies/" + testCurrency + "?filter=EUR,GBP")).andExpect(status().isOk())
+        performAsync(MockMvcRequestBuilders.get("/currencies/" + testCurrency + "?filter=EUR,GBP")).andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
                 .andExpect(jsonPath("$.source").value(testCurrency))
-                .andExpect(jsonPath("$.rates.EUR").value(0.85))
-                .andExpect(jsonPath("$.rates.GBP").value(0.75));;
+                .andExpect(jsonPath("$.rates.eur").value(0.85))
+                .andExpect(jsonPath("$.rates.gbp").value(0.75));;
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedWhenRateSnapshotIsUnchanged() throws Exception {
+        CurrencyRates mockResponse = CurrencyRates.of("USD", Map.of("eur", 0.85));
+        when(providerMock.getCurrencyAsync("USD", Set.of("eur"))).thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        String eTag = performAsync(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("public")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, matchesPattern("max-age=(29|30),.*")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        performAsync(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        CurrencyRates refetched = CurrencyRates.of("USD", Map.of("eur", 0.86));
+        when(providerMock.getCurrencyAsync("USD", Set.of("eur"))).thenReturn(CompletableFuture.completedFuture(refetched));
+        performAsync(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates.eur").value(0.86));
+    }
+
+    @Test
+    public void shouldServeCborWithItsOwnETag() throws Exception {
+        CurrencyRates mockResponse = CurrencyRates.of("USD", Map.of("eur", 0.85));
+        when(providerMock.getCurrencyAsync("USD", Set.of("eur"))).thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        String jsonETag = performAsync(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MvcResult cbor = performAsync(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray());
+        assertThat(body.get("source").asText()).isEqualTo("USD");
+        assertThat(body.get("rates").get("eur").asDouble()).isEqualTo(0.85);
+        String cborETag = cbor.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(cborETag).isNotEqualTo(jsonETag);
+        performAsync(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk());
+        performAsync(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborETag))
+                .andExpect(status().isNotModified());
     }
 
     @Test
     public void shouldHandleExternalApiCommunicationException() throws Exception {
-        when(providerMock.getCurrency(Mockito.anyString(), Mockito.anySet()))
-                .thenThrow(new ExternalApiCommunicationException("External API error"));
+        when(providerMock.getCurrencyAsync(Mockito.anyString(), Mockito.anySet()))
+                .thenReturn(CompletableFuture.failedFuture(new ExternalApiCommunicationException("External API error")));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR,GBP"))
+        performAsync(MockMvcRequestBuilders.get("/currencies/USD?filter=EUR,GBP"))
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
                 .andExpect(jsonPath("$.message").value("External API error"))
@@ -65,10 +140,10 @@ public class CurrencyIntTest extends IntegrationTest {
 
     @Test
     public void shouldHandleRequestValidationException() throws Exception {
-        when(providerMock.getCurrency(Mockito.anyString(), Mockito.anySet()))
-                .thenThrow(new RequestValidationException("Invalid request parameters"));
+        when(providerMock.getCurrencyAsync(Mockito.anyString(), Mockito.anySet()))
+                .thenReturn(CompletableFuture.failedFuture(new RequestValidationException("Invalid request parameters")));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/currencies/INVALID?filter=EUR,GBP"))
+        performAsync(MockMvcRequestBuilders.get("/currencies/INVALID?filter=EUR,GBP"))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
                 .andExpect(jsonPath("$.message").value("Invalid request parameters"))
@@ -78,41 +153,60 @@ public class CurrencyIntTest extends IntegrationTest {
     @Test
     public void shouldExchangeCurrencies() throws Exception {
         String testCurrency = "USD";
-        Set<String> testFilters = Set.of("EUR", "GBP");
+        Set<String> testFilters = Set.of("eur", "gbp");
         Map<String, Double> rates = Map.of(
-                "EUR", 0.85,
-                "GBP", 0.75
+                "eur", 0.85,
+                "gbp", 0.75
         );
-        Map.Entry<String, Map<String, Double>> mockResponse =
-                new AbstractMap.SimpleEntry<>(testCurrency, rates);
-        when(providerMock.getCurrency(testCurrency, testFilters)).thenReturn(mockResponse);
+        CurrencyRates mockResponse = CurrencyRates.of(testCurrency, rates);
+        when(providerMock.getCurrencyAsync(testCurrency, testFilters)).thenReturn(CompletableFuture.completedFuture(mockResponse));
         ExchangeRequestDTO dto = createRequestDTO(testCurrency, testFilters, 100);
 
-        mockMvc.perform(post("/currencies/exchange")
+        performAsync(post("/currencies/exchange")
                         .contentType(MediaType.APPLICATION_JSON_VALUE)
                         .content(convertObjectToJsonBytes(dto)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
                 .andExpect(jsonPath("$.from").value(testCurrency))
-                .andExpect(jsonPath("$.EUR.rate").value(0.85))
-                .andExpect(jsonPath("$.EUR.amount").value(100.0))
-                .andExpect(jsonPath("$.EUR.result").value(84.15))
-                .andExpect(jsonPath("$.EUR.fee").value(1.0))
-                .andExpect(jsonPath("$.GBP.rate").value(0.75))
-                .andExpect(jsonPath("$.GBP.amount").value(100.0))
-                .andExpect(jsonPath("$.GBP.result").value(74.25))
-                .andExpect(jsonPath("$.GBP.fee").value(1.0));
+                .andExpect(jsonPath("$.eur.rate").value(0.85))
+                .andExpect(jsonPath("$.eur.amount").value(100.0))
+                .andExpect(jsonPath("$.eur.result").value(84.15))
+                .andExpect(jsonPath("$.eur.fee").value(1.0))
+                .andExpect(jsonPath("$.gbp.rate").value(0.75))
+                .andExpect(jsonPath("$.gbp.amount").value(100.0))
+                .andExpect(jsonPath("$.gbp.result").value(74.25))
+                .andExpect(jsonPath("$.gbp.fee").value(1.0));
+    }
+
+    @Test
+    public void shouldExchangeCurrenciesAsCbor() throws Exception {
+        CurrencyRates mockResponse = CurrencyRates.of("USD", Map.of("eur", 0.85));
+        when(providerMock.getCurrencyAsync("USD", Set.of("eur"))).thenReturn(CompletableFuture.completedFuture(mockResponse));
+        CBORMapper cborMapper = new CBORMapper();
+
+        MvcResult result = performAsync(post("/currencies/exchange")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(createRequestDTO("USD", Set.of("EUR"), 100))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode body = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.get("from").asText()).isEqualTo("USD");
+        assertThat(body.get("eur").get("rate").asDouble()).isEqualTo(0.85);
+        assertThat(body.get("eur").get("result").asDouble()).isEqualTo(84.15);
     }
 
     @Test
     public void shouldHandleExternalApiCommunicationExceptionDuringExchange() throws Exception {
         String testCurrency = "USD";
         Set<String> testFilters = Set.of("EUR", "GBP");
-        when(providerMock.getCurrency(Mockito.anyString(), Mockito.anySet()))
-                .thenThrow(new ExternalApiCommunicationException("External API error"));
+        when(providerMock.getCurrencyAsync(Mockito.anyString(), Mockito.anySet()))
+                .thenReturn(CompletableFuture.failedFuture(new ExternalApiCommunicationException("External API error")));
         ExchangeRequestDTO dto = createRequestDTO(testCurrency, testFilters, 100);
 
-        mockMvc.perform(post("/currencies/exchange")
+        performAsync(post("/currencies/exchange")
                         .contentType(MediaType.APPLICATION_JSON_VALUE)
                         .content(convertObjectToJsonBytes(dto)))
                 .andExpect(status().isInternalServerError())
@@ -125,11 +219,11 @@ public class CurrencyIntTest extends IntegrationTest {
     public void shouldHandleRequestValidationExceptionDuringExchange() throws Exception {
         String testCurrency = "USD";
         Set<String> testFilters = Set.of("EUR", "GBP");
-        when(providerMock.getCurrency(Mockito.anyString(), Mockito.anySet()))
-                .thenThrow(new RequestValidationException("Invalid request parameters"));
+        when(providerMock.getCurrencyAsync(Mockito.anyString(), Mockito.anySet()))
+                .thenReturn(CompletableFuture.failedFuture(new RequestValidationException("Invalid request parameters")));
         ExchangeRequestDTO dto = createRequestDTO(testCurrency, testFilters, 100);
 
-        mockMvc.perform(post("/currencies/exchange")
+        performAsync(post("/currencies/exchange")
                         .contentType(MediaType.APPLICATION_JSON_VALUE)
                         .content(convertObjectToJsonBytes(dto)))
                 .andExpect(status().isBadRequest())
@@ -177,6 +271,132 @@ public class CurrencyIntTest extends IntegrationTest {
                 .andExpect(jsonPath("$.fieldsValidationResults[0].message").value("Amount must be positive."));
     }
 
+    @Test
+    public void shouldStreamBulkExchangeResultsGroupedBySource() throws Exception {
+        CurrencyRates usdRates = CurrencyRates.of("USD", Map.of("eur", 0.85, "gbp", 0.75));
+        when(providerMock.getCurrencyAsync("USD", Set.of("eur", "gbp"))).thenReturn(CompletableFuture.completedFuture(usdRates));
+        when(providerMock.getCurrencyAsync("INVALID", Set.of("eur")))
+                .thenReturn(CompletableFuture.failedFuture(new RequestValidationException("Given Currency is not supported.")));
+        BulkExchangeRequestDTO dto = BulkExchangeRequestDTO.builder()
+                .items(List.of(
+                        createRequestDTO("USD", Set.of("EUR"), 100),
+                        createRequestDTO("USD", Set.of("GBP"), 50),
+                        createRequestDTO("INVALID", Set.of("EUR"), 10)))
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/currencies/exchange/bulk")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(convertObjectToJsonBytes(dto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON_VALUE));
+
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines).anySatisfy(line -> assertThat(line)
+                .contains("\"index\":0").contains("\"eur\":{\"rate\":0.85,\"amount\":100.0,\"result\":84.15,\"fee\":1.0}"));
+        assertThat(lines).anySatisfy(line -> assertThat(line)
+                .contains("\"index\":1").contains("\"gbp\"").doesNotContain("\"eur\""));
+        assertThat(lines).anySatisfy(line -> assertThat(line)
+                .contains("\"index\":2").contains("\"error\":\"Given Currency is not supported.\""));
+        verify(providerMock, times(1)).getCurrencyAsync("USD", Set.of("eur", "gbp"));
+    }
+
+    @Test
+    public void shouldStreamBulkErrorForItemWhoseSourceCannotBeResolved() throws Exception {
+        CurrencyRates usdRates = CurrencyRates.of("USD", Map.of("eur", 0.85));
+        when(providerMock.getCurrencyAsync("USD", Set.of("eur"))).thenReturn(CompletableFuture.completedFuture(usdRates));
+        Mockito.doThrow(new RequestValidationException("Given Currency is not supported."))
+                .when(currencyResolverSpy).resolve("UNRESOLVABLE");
+        BulkExchangeRequestDTO dto = BulkExchangeRequestDTO.builder()
+                .items(List.of(
+                        createRequestDTO("UNRESOLVABLE", Set.of("EUR"), 10),
+                        createRequestDTO("USD", Set.of("EUR"), 100)))
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/currencies/exchange/bulk")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(convertObjectToJsonBytes(dto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines).anySatisfy(line -> assertThat(line)
+                .contains("\"index\":0").contains("\"error\":\"Given Currency is not supported.\""));
+        assertThat(lines).anySatisfy(line -> assertThat(line)
+                .contains("\"index\":1").contains("\"eur\""));
+    }
+
+    @Test
+    public void shouldPushRatesToStreamSubscribers() throws Exception {
+        CurrencyRates rates = CurrencyRates.of("USD", Map.of("eur", 0.85, "gbp", 0.75));
+        when(providerMock.getCurrencyAsync(Mockito.eq("USD"), Mockito.anySet())).thenReturn(CompletableFuture.completedFuture(rates));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/currencies/USD/stream?filter=EUR"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String events = awaitEvent(result);
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(events).contains("event:rates").contains("\"source\":\"USD\"").contains("\"eur\":0.85").doesNotContain("gbp");
+    }
+
+    @Test
+    public void shouldRejectStreamSubscriptionWithInvalidThreshold() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/currencies/USD/stream?filter=EUR&threshold=2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Threshold must be at least 0 and below 1."));
+    }
+
+    @Test
+    public void shouldPushRatesOfUppercaseStreamFilters() throws Exception {
+        CurrencyRates rates = CurrencyRates.of("bitcoin", Map.of("usd", 65000.0, "eur", 60000.0));
+        when(providerMock.getCurrencyAsync("bitcoin", Set.of("usd"))).thenReturn(CompletableFuture.completedFuture(rates));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/currencies/bitcoin/stream?filter=USD"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String events = awaitEvent(result);
+        assertThat(events).contains("event:rates").contains("\"usd\":65000.0").doesNotContain("eur");
+    }
+
+    @Test
+    public void shouldEndStreamSubscriptionWhenFirstRatesCannotBeFetched() throws Exception {
+        when(providerMock.getCurrencyAsync(Mockito.eq("CHF"), Mockito.anySet())).thenReturn(CompletableFuture.failedFuture(
+                new ExternalApiCommunicationException("Problem during communication with CoinGecko API.")));
+        double before = meterRegistry.get("cointrack.stream.subscriptions").gauge().value();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/currencies/CHF/stream?filter=EUR"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Problem during communication with CoinGecko API."));
+        assertThat(meterRegistry.get("cointrack.stream.subscriptions").gauge().value()).isEqualTo(before);
+    }
+
+    private String awaitEvent(MvcResult result) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.getResponse().getContentAsString().contains("}\n\n") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return result.getResponse().getContentAsString();
+    }
+
+    private ResultActions performAsync(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     private ExchangeRequestDTO createRequestDTO(String from, Set<String> to, double amount) {
         return ExchangeRequestDTO.builder()
                 .from(from)
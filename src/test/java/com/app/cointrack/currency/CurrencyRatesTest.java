@@ -0,0 +1,47 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.rate.RateTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CurrencyRatesTest {
+
+    @Test
+    public void shouldSelectRequestedTargetsOnly() {
+        CurrencyRates rates = CurrencyRates.of("bitcoin", Map.of("usd", 40000.0, "eur", 35000.0));
+
+        assertThat(rates.select(Set.of("eur", "pln")).asMap()).containsExactly(Map.entry("eur", 35000.0));
+        assertThat(rates.select(Set.of("usd", "eur"))).isSameAs(rates);
+        assertThat(rates.rate("pln")).isNaN();
+    }
+
+    @Test
+    public void shouldExposeTableRowsAsViews() {
+        RateTable table = RateTable.of(List.of(
+                CurrencyRates.of("bitcoin", Map.of("usd", 40000.0, "eur", 35000.0)),
+                CurrencyRates.of("ethereum", Map.of("usd", 2000.0))));
+
+        assertThat(table.get("bitcoin", Set.of())).isSameAs(table.get("bitcoin", Set.of("usd", "eur")));
+        assertThat(table.get("ethereum", Set.of()).asMap()).containsExactly(Map.entry("usd", 2000.0));
+        assertThat(table.rate("bitcoin", "eur")).isEqualTo(35000.0);
+        assertThat(table.rate("ethereum", "eur")).isNaN();
+        assertThat(table.get("solana", Set.of())).isNull();
+    }
+
+    @Test
+    public void shouldSerializeAsJsonObject() throws Exception {
+        CurrencyRates rates = CurrencyRates.builder("bitcoin", 2)
+                .add("usd", 40000.5)
+                .add("eur", 35000.0)
+                .build();
+
+        assertThat(new ObjectMapper().writeValueAsString(rates)).isEqualTo("{\"usd\":40000.5,\"eur\":35000.0}");
+    }
+}
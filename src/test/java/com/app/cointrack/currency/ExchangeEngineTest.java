@@ -0,0 +1,142 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.currency.dto.ExchangeResultDTO;
+import com.app.cointrack.currency.exchange.ExchangeEngine;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExchangeEngineTest {
+
+    @Test
+    public void shouldTakeFeeFromAmountAndConvertTheRest() {
+        ExchangeEngine engine = new ExchangeEngine(8, RoundingMode.HALF_EVEN, "0:0.01", 256);
+
+        List<ExchangeResultDTO> results = engine.exchange(CurrencyRates.of("usd", Map.of("eur", 0.85)), 100);
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.getTo()).isEqualTo("eur");
+            assertThat(result.getRate()).isEqualTo(0.85);
+            assertThat(result.getAmount()).isEqualTo(100.0);
+            assertThat(result.getFee()).isEqualTo(1.0);
+            assertThat(result.getResult()).isEqualTo(84.15);
+        });
+    }
+
+    @Test
+    public void shouldRoundWithConfiguredRoundingMode() {
+        CurrencyRates rates = CurrencyRates.of("usd", Map.of("eur", 0.125));
+
+        ExchangeResultDTO halfEven = new ExchangeEngine(2, RoundingMode.HALF_EVEN, "0:0", 256).exchange(rates, 1).getFirst();
+        ExchangeResultDTO halfUp = new ExchangeEngine(2, RoundingMode.HALF_UP, "0:0", 256).exchange(rates, 1).getFirst();
+        ExchangeResultDTO down = new ExchangeEngine(3, RoundingMode.DOWN, "0:0", 256).exchange(rates, 0.5).getFirst();
+
+        assertThat(halfEven.getResult()).isEqualTo(0.12);
+        assertThat(halfUp.getResult()).isEqualTo(0.13);
+        assertThat(down.getResult()).isEqualTo(0.062);
+    }
+
+    @Test
+    public void shouldApplyFeeTierOfAmount() {
+        ExchangeEngine engine = new ExchangeEngine(8, RoundingMode.HALF_EVEN, "10000:0.005, 0:0.01", 256);
+        CurrencyRates rates = CurrencyRates.of("usd", Map.of("eur", 1.0));
+
+        assertThat(engine.exchange(rates, 9999).getFirst().getFee()).isEqualTo(99.99);
+        assertThat(engine.exchange(rates, 10000).getFirst().getFee()).isEqualTo(50.0);
+    }
+
+    @Test
+    public void shouldKeepPrecisionWhenScaledProductOverflowsLong() {
+        ExchangeEngine engine = new ExchangeEngine(8, RoundingMode.HALF_EVEN, "0:0", 256);
+
+        ExchangeResultDTO result = engine.exchange(CurrencyRates.of("bitcoin", Map.of("jpy", 15000000.0)), 1000000).getFirst();
+
+        assertThat(result.getResult()).isEqualTo(1.5E13);
+    }
+
+    @Test
+    public void shouldExchangeAmountsBeyondScaledLongRange() {
+        ExchangeEngine engine = new ExchangeEngine(8, RoundingMode.HALF_EVEN, "0:0.01", 256);
+
+        ExchangeResultDTO result = engine.exchange(CurrencyRates.of("shiba-inu", Map.of("usd", 0.0000125)), 1e12).getFirst();
+
+        assertThat(result.getAmount()).isEqualTo(1e12);
+        assertThat(result.getFee()).isEqualTo(1e10);
+        assertThat(result.getResult()).isEqualTo(1.2375E7);
+    }
+
+    @Test
+    public void shouldMatchBigDecimalArithmetic() {
+        ExchangeEngine engine = new ExchangeEngine(8, RoundingMode.HALF_EVEN, "0:0.01", 256);
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000L), 4);
+            BigDecimal rate = BigDecimal.valueOf(random.nextLong(1, 1_000_000), random.nextInt(-4, 12));
+            BigDecimal fee = amount.multiply(new BigDecimal("0.01")).setScale(8, RoundingMode.HALF_EVEN);
+            BigDecimal expected = amount.subtract(fee).multiply(rate).setScale(8, RoundingMode.HALF_EVEN);
+
+            ExchangeResultDTO result = engine.exchange(CurrencyRates.of("usd", Map.of("eur", rate.doubleValue())), amount.doubleValue()).getFirst();
+
+            assertThat(result.getFee()).isEqualTo(fee.doubleValue());
+            assertThat(result.getResult()).as("%s * %s", amount, rate).isEqualTo(expected.doubleValue());
+        }
+    }
+
+    @Test
+    public void shouldQuantizeAmountsFromTheirDecimalRepresentation() {
+        CurrencyRates rates = CurrencyRates.of("usd", Map.of("eur", 1.0));
+
+        assertThat(new ExchangeEngine(2, RoundingMode.HALF_UP, "0:0", 256).exchange(rates, 1.005).getFirst().getAmount())
+                .isEqualTo(1.01);
+        assertThat(new ExchangeEngine(8, RoundingMode.HALF_EVEN, "0:0", 256).exchange(rates, 692843.256182425).getFirst().getAmount())
+                .isEqualTo(692843.25618242);
+    }
+
+    @Test
+    public void shouldQuantizeAmountsLikeBigDecimalInEveryRoundingMode() {
+        CurrencyRates rates = CurrencyRates.of("usd", Map.of("eur", 1.0));
+        Random random = new Random(7);
+        for (RoundingMode roundingMode : List.of(RoundingMode.HALF_EVEN, RoundingMode.HALF_UP, RoundingMode.HALF_DOWN,
+                RoundingMode.FLOOR, RoundingMode.CEILING)) {
+            ExchangeEngine engine = new ExchangeEngine(8, roundingMode, "0:0", 256);
+            for (int i = 0; i < 100000; i++) {
+                double amount = BigDecimal.valueOf(random.nextLong(1, 1_000_000_000_000_000L), 9).doubleValue();
+                double expected = BigDecimal.valueOf(amount).setScale(8, roundingMode).doubleValue();
+
+                ExchangeResultDTO result = engine.exchange(rates, amount).getFirst();
+
+                assertThat(result.getAmount()).as("%s %s", roundingMode, amount).isEqualTo(expected);
+                assertThat(result.getResult()).as("%s %s", roundingMode, amount).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void shouldComputeSameResultsInParallelAboveThreshold() {
+        Map<String, Double> rateMap = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            rateMap.put("c" + i, 0.001 * (i + 1));
+        }
+        CurrencyRates rates = CurrencyRates.of("usd", rateMap);
+
+        List<ExchangeResultDTO> sequential = new ExchangeEngine(8, RoundingMode.HALF_EVEN, "0:0.01", 1000).exchange(rates, 123.45);
+        List<ExchangeResultDTO> parallel = new ExchangeEngine(8, RoundingMode.HALF_EVEN, "0:0.01", 10).exchange(rates, 123.45);
+
+        assertThat(parallel).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(sequential);
+    }
+
+    @Test
+    public void shouldRejectFeeScheduleWithoutBaseTier() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ExchangeEngine(8, RoundingMode.HALF_EVEN, "100:0.01", 256));
+    }
+}
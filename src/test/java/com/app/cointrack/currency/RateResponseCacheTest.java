@@ -0,0 +1,69 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.currency.controller.RateResponseCache;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateResponseCacheTest {
+    private final RateResponseCache cache =
+            new RateResponseCache(new ObjectMapper(), DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+
+    @Test
+    public void shouldReuseEncodedResponseWhileSnapshotIsUnchanged() {
+        CurrencyRates rates = CurrencyRates.of("bitcoin", Map.of("usd", 40000.0, "eur", 35000.0, "gbp", 30000.0));
+
+        byte[] first = cache.get(MediaType.APPLICATION_JSON, rates.select(new LinkedHashSet<>(List.of("usd", "eur"))));
+        byte[] second = cache.get(MediaType.APPLICATION_JSON, rates.select(new LinkedHashSet<>(List.of("eur", "usd", "chf"))));
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first, StandardCharsets.UTF_8)).startsWith("{\"source\":\"bitcoin\",\"rates\":{");
+    }
+
+    @Test
+    public void shouldKeepTargetSetsApart() {
+        CurrencyRates rates = CurrencyRates.of("bitcoin", Map.of("usd", 40000.0, "eur", 35000.0));
+
+        byte[] usd = cache.get(MediaType.APPLICATION_JSON, rates.select(Set.of("usd")));
+        byte[] both = cache.get(MediaType.APPLICATION_JSON, rates);
+
+        assertThat(new String(usd, StandardCharsets.UTF_8)).doesNotContain("eur");
+        assertThat(new String(both, StandardCharsets.UTF_8)).contains("eur").contains("usd");
+    }
+
+    @Test
+    public void shouldReencodeWhenRatesAreRefetched() {
+        CurrencyRates rates = CurrencyRates.of("bitcoin", Map.of("usd", 40000.0));
+        CurrencyRates refetched = CurrencyRates.of("bitcoin", Map.of("usd", 41000.0));
+
+        byte[] first = cache.get(MediaType.APPLICATION_JSON, rates);
+        byte[] second = cache.get(MediaType.APPLICATION_JSON, refetched);
+
+        assertThat(new String(first, StandardCharsets.UTF_8)).contains("40000.0");
+        assertThat(new String(second, StandardCharsets.UTF_8)).contains("41000.0");
+    }
+
+    @Test
+    public void shouldKeepRepresentationsApart() throws IOException {
+        CurrencyRates rates = CurrencyRates.of("bitcoin", Map.of("usd", 40000.0));
+
+        byte[] json = cache.get(MediaType.APPLICATION_JSON, rates);
+        byte[] cbor = cache.get(MediaType.APPLICATION_CBOR, rates);
+
+        assertThat(cbor).isNotEqualTo(json);
+        assertThat(new CBORMapper().readTree(cbor).get("rates").get("usd").asDouble()).isEqualTo(40000.0);
+    }
+}
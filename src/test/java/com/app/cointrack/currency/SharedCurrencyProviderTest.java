@@ -0,0 +1,162 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.impl.SharedCurrencyProvider;
+import com.app.cointrack.currency.provider.shared.InMemorySharedRateCache;
+import com.app.cointrack.currency.provider.shared.SharedRateCache;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedCurrencyProviderTest {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch upstreamStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseUpstream = new CountDownLatch(1);
+
+    @Test
+    public void shouldFetchOnceForAllInstancesSharingTheCache() throws Exception {
+        InMemorySharedRateCache cache = new InMemorySharedRateCache();
+        SharedCurrencyProvider first = provider(cache, blockingUpstream(), Duration.ofSeconds(5));
+        SharedCurrencyProvider second = provider(cache, blockingUpstream(), Duration.ofSeconds(5));
+
+        Future<CurrencyRates> leader = executor.submit(() -> first.getCurrency("bitcoin", Set.of("usd", "eur")));
+        upstreamStarted.await();
+        Future<CurrencyRates> follower = executor.submit(() -> second.getCurrency("bitcoin", Set.of("usd")));
+        Thread.sleep(20);
+        releaseUpstream.countDown();
+
+        assertThat(leader.get().asMap()).containsOnlyKeys("usd", "eur");
+        assertThat(follower.get().getSource()).isEqualTo("bitcoin");
+        assertThat(follower.get().asMap()).containsExactly(Map.entry("usd", 40000.0));
+        assertThat(follower.get().getVersion()).isEqualTo(leader.get().getVersion());
+        assertThat(follower.get().getFetchedAt()).isEqualTo(leader.get().getFetchedAt());
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(first.getStats().fetches()).isEqualTo(1);
+        assertThat(second.getStats().fetches()).isZero();
+    }
+
+    @Test
+    public void shouldFetchDirectlyWhenLeaseHolderDoesNotPublish() {
+        InMemorySharedRateCache cache = new InMemorySharedRateCache();
+        cache.tryAcquireLease("cointrack:rate-lease:bitcoin:usd", "crashed-instance", Duration.ofMinutes(1));
+        SharedCurrencyProvider first = provider(cache, countingUpstream(), Duration.ofMillis(50));
+        SharedCurrencyProvider second = provider(cache, countingUpstream(), Duration.ofMillis(50));
+
+        CurrencyRates fetched = first.getCurrency("bitcoin", Set.of("usd"));
+        CurrencyRates shared = second.getCurrency("bitcoin", Set.of("usd"));
+
+        assertThat(fetched.asMap()).containsEntry("usd", 40000.0);
+        assertThat(shared.getVersion()).isEqualTo(fetched.getVersion());
+        assertThat(first.getStats().fallbacks()).isEqualTo(1);
+        assertThat(second.getStats().hits()).isEqualTo(1);
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotWaitOnLeasesOfOtherRequests() {
+        InMemorySharedRateCache cache = new InMemorySharedRateCache();
+        cache.tryAcquireLease("cointrack:rate-lease:bitcoin:usd", "other-instance", Duration.ofMinutes(1));
+        SharedCurrencyProvider provider = provider(cache, countingUpstream(), Duration.ofMinutes(1));
+
+        provider.getCurrency("ethereum", Set.of("usd"));
+        provider.getCurrency("bitcoin", Set.of("eur"));
+
+        assertThat(provider.getStats().fetches()).isEqualTo(2);
+        assertThat(provider.getStats().fallbacks()).isZero();
+        assertThat(provider.getStats().waitedHits()).isZero();
+    }
+
+    @Test
+    public void shouldWaitOnLeaseOfOverlappingRequest() {
+        InMemorySharedRateCache cache = new InMemorySharedRateCache();
+        cache.tryAcquireLease("cointrack:rate-lease:bitcoin:usd", "other-instance", Duration.ofMinutes(1));
+        SharedCurrencyProvider provider = provider(cache, countingUpstream(), Duration.ofMillis(50));
+
+        CurrencyRates rates = provider.getCurrency("bitcoin", Set.of("eur", "usd"));
+
+        assertThat(rates.asMap()).containsOnlyKeys("usd", "eur");
+        assertThat(provider.getStats().fallbacks()).isEqualTo(1);
+        assertThat(cache.tryAcquireLease("cointrack:rate-lease:bitcoin:eur", "third-instance", Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    public void shouldSweepExpiredEntriesThatAreNeverReadAgain() {
+        AtomicLong clock = new AtomicLong();
+        InMemorySharedRateCache cache = new InMemorySharedRateCache(clock::get);
+        cache.putAll(Map.of("a", new byte[1], "b", new byte[1]), Duration.ofSeconds(1));
+
+        clock.addAndGet(Duration.ofSeconds(2).toMillis());
+        cache.put("c", new byte[1], Duration.ofSeconds(30));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("c")).isNotNull();
+    }
+
+    @Test
+    public void shouldBypassUnavailableSharedCache() {
+        SharedCurrencyProvider provider = provider(new UnavailableSharedRateCache(), countingUpstream(), Duration.ofSeconds(5));
+
+        CurrencyRates rates = provider.getCurrency("bitcoin", Set.of("usd"));
+
+        assertThat(rates.asMap()).containsEntry("usd", 40000.0);
+        assertThat(provider.getStats().errors()).isEqualTo(2);
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    private SharedCurrencyProvider provider(SharedRateCache cache, CurrencyProvider upstream, Duration maxWait) {
+        return new SharedCurrencyProvider(upstream, cache, Duration.ofSeconds(30), Duration.ofSeconds(10),
+                maxWait, Duration.ofMillis(5), executor);
+    }
+
+    private CurrencyProvider countingUpstream() {
+        return (currency, filters) -> {
+            upstreamCalls.incrementAndGet();
+            return CurrencyRates.of(currency, Map.of("usd", 40000.0, "eur", 35000.0));
+        };
+    }
+
+    private CurrencyProvider blockingUpstream() {
+        return (currency, filters) -> {
+            upstreamCalls.incrementAndGet();
+            upstreamStarted.countDown();
+            try {
+                releaseUpstream.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CurrencyRates.of(currency, Map.of("usd", 40000.0, "eur", 35000.0));
+        };
+    }
+
+    private static class UnavailableSharedRateCache implements SharedRateCache {
+        @Override
+        public List<byte[]> getAll(List<String> keys) {
+            throw new IllegalStateException("Connection refused");
+        }
+
+        @Override
+        public void putAll(Map<String, byte[]> values, Duration ttl) {
+            throw new IllegalStateException("Connection refused");
+        }
+
+        @Override
+        public boolean tryAcquireLease(String lease, String owner, Duration duration) {
+            throw new IllegalStateException("Connection refused");
+        }
+
+        @Override
+        public void releaseLease(String lease, String owner) {
+            throw new IllegalStateException("Connection refused");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.app.cointrack.currency;
+
+import com.app.cointrack.common.exception.ExternalApiCommunicationException;
+import com.app.cointrack.common.exception.RequestValidationException;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.provider.impl.SnapshotCurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnapshotCurrencyProviderTest {
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CurrencyProvider upstream = new CurrencyProvider() {
+        @Override
+        public CurrencyRates getCurrency(String currency, Set<String> filters) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, CurrencyRates> getCurrencies(Set<String> currencies, Set<String> filters) {
+            upstreamCalls.incrementAndGet();
+            Map<String, CurrencyRates> result = new HashMap<>();
+            currencies.forEach(currency -> result.put(currency, CurrencyRates.of(currency, Map.of("usd", 1.0, "eur", 2.0))));
+            return result;
+        }
+    };
+
+    @Test
+    public void shouldServeRatesOnlyFromSnapshot() {
+        SnapshotCurrencyProvider provider = new SnapshotCurrencyProvider(upstream,
+                Set.of("bitcoin", "ethereum", "solana"), Set.of("usd", "eur"), 2, Clock.systemUTC());
+        provider.refresh();
+
+        CurrencyRates all = provider.getCurrency("bitcoin", Set.of());
+        CurrencyRates filtered = provider.getCurrency("solana", Set.of("eur", "pln"));
+
+        assertThat(all.getSource()).isEqualTo("bitcoin");
+        assertThat(all.asMap()).containsOnlyKeys("usd", "eur");
+        assertThat(filtered.asMap()).containsExactly(Map.entry("eur", 2.0));
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        Assertions.assertThrows(RequestValidationException.class, () -> provider.getCurrency("dogecoin", Set.of("usd")));
+    }
+
+    @Test
+    public void shouldFailFastBeforeFirstSnapshot() {
+        SnapshotCurrencyProvider provider = new SnapshotCurrencyProvider(upstream,
+                Set.of("bitcoin"), Set.of("usd"), 10, Clock.systemUTC());
+
+        Assertions.assertThrows(ExternalApiCommunicationException.class, () -> provider.getCurrency("bitcoin", Set.of("usd")));
+        assertThat(provider.getSnapshotAge()).isEmpty();
+    }
+
+    @Test
+    public void shouldReportSnapshotAge() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        SnapshotCurrencyProvider provider = new SnapshotCurrencyProvider(upstream,
+                Set.of("bitcoin"), Set.of("usd"), 10, clock);
+        provider.refresh();
+
+        clock.instant = clock.instant.plusSeconds(12);
+
+        assertThat(provider.getSnapshotAge()).contains(Duration.ofSeconds(12));
+        assertThat(provider.getLastRefreshDuration()).isPositive();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
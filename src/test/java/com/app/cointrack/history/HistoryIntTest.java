@@ -0,0 +1,46 @@
+package com.app.cointrack.history;
+
+import com.app.cointrack.IntegrationTest;
+import com.app.cointrack.history.store.TimeSeriesStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.Instant;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class HistoryIntTest extends IntegrationTest {
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Autowired
+    private TimeSeriesStore historyStore;
+
+    @Test
+    public void shouldReturnRateAtTimeAndDownsampledRange() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            historyStore.append("solana", "usd", START.plusSeconds(30L * i).toEpochMilli(), 100 + i);
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/history/solana/usd?at=" + START.plusSeconds(45)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timestamp").value("2024-01-01T00:00:30Z"))
+                .andExpect(jsonPath("$.rate").value(101.0));
+        mockMvc.perform(MockMvcRequestBuilders.get("/history/solana/usd/range?from=" + START + "&to=" + START.plusSeconds(180)
+                        + "&step=PT1M&aggregation=average"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aggregation").value("average"))
+                .andExpect(jsonPath("$.points.length()").value(3))
+                .andExpect(jsonPath("$.points[1].timestamp").value("2024-01-01T00:01:00Z"))
+                .andExpect(jsonPath("$.points[1].rate").value(102.5));
+    }
+
+    @Test
+    public void shouldRejectRangeWithTooManyPoints() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/history/solana/usd/range?from=" + START + "&to=" + START.plusSeconds(86400)
+                        + "&step=PT1S"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorStatus").value("BAD_REQUEST"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.app.cointrack.history;
+
+import com.app.cointrack.history.store.Aggregation;
+import com.app.cointrack.history.store.RatePoint;
+import com.app.cointrack.history.store.TimeSeriesStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimeSeriesStoreTest {
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void shouldReturnExactRatesAfterRoundTripThroughSegments() throws IOException {
+        TimeSeriesStore store = TimeSeriesStore.open(directory, 16, 100);
+        Random random = new Random(42);
+        long[] timestamps = new long[100];
+        double[] rates = new double[100];
+        long timestamp = 1_700_000_000_000L;
+        double rate = 40000.0;
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamp += random.nextInt(3) == 0 ? 30_000 + random.nextInt(5000) : 30_000;
+            rate = random.nextInt(4) == 0 ? rate : rate * (1 + (random.nextDouble() - 0.5) / 100);
+            timestamps[i] = timestamp;
+            rates[i] = rate;
+            store.append("bitcoin", "usd", timestamp, rate);
+            if (i == 50) {
+                store.flush();
+            }
+        }
+
+        for (int i = 0; i < timestamps.length; i++) {
+            assertThat(store.rateAt("bitcoin", "usd", timestamps[i])).isEqualTo(new RatePoint(timestamps[i], rates[i]));
+            assertThat(store.rateAt("bitcoin", "usd", timestamps[i] + 1).rate()).isEqualTo(rates[i]);
+        }
+        assertThat(store.rateAt("bitcoin", "usd", timestamps[0] - 1)).isNull();
+        assertThat(store.rateAt("bitcoin", "eur", timestamps[0])).isNull();
+    }
+
+    @Test
+    public void shouldDownsampleRange() throws IOException {
+        TimeSeriesStore store = TimeSeriesStore.open(directory, 4, 100);
+        for (int i = 0; i < 10; i++) {
+            store.append("bitcoin", "usd", i * 1000L, i);
+        }
+
+        List<RatePoint> average = store.range("bitcoin", "usd", 1000, 8000, 3000, Aggregation.AVERAGE);
+        List<RatePoint> max = store.range("bitcoin", "usd", 1000, 8000, 3000, Aggregation.MAX);
+
+        assertThat(average).containsExactly(new RatePoint(1000, 2), new RatePoint(4000, 5), new RatePoint(7000, 7.5));
+        assertThat(max).containsExactly(new RatePoint(1000, 3), new RatePoint(4000, 6), new RatePoint(7000, 8));
+    }
+
+    @Test
+    public void shouldPersistFlushedPointsAndDropOutOfOrderOnes() throws IOException {
+        TimeSeriesStore first = TimeSeriesStore.open(directory, 8, 100);
+        first.append("bitcoin", "usd", 2000, 40000.0);
+        first.append("bitcoin", "usd", 1000, 39000.0);
+        first.append("ethereum", "eur", 2000, 2500.5);
+        first.close();
+
+        TimeSeriesStore second = TimeSeriesStore.open(directory, 8, 100);
+        second.append("bitcoin", "usd", 1500, 39500.0);
+        second.append("bitcoin", "usd", 3000, 41000.0);
+
+        assertThat(second.range("bitcoin", "usd", 0, 5000, 1, Aggregation.LAST))
+                .containsExactly(new RatePoint(2000, 40000.0), new RatePoint(3000, 41000.0));
+        assertThat(second.rateAt("ethereum", "eur", 2000).rate()).isEqualTo(2500.5);
+        assertThat(second.getStats().points()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldCompactSegmentsIntoOne() throws IOException {
+        TimeSeriesStore store = TimeSeriesStore.open(directory, 8, 2);
+        for (int i = 0; i < 30; i++) {
+            store.append("bitcoin", "usd", i * 1000L, 40000 + i);
+            if (i % 10 == 9) {
+                store.flush();
+            }
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+        TimeSeriesStore reopened = TimeSeriesStore.open(directory, 8, 2);
+        assertThat(reopened.getStats().segments()).isEqualTo(1);
+        assertThat(reopened.range("bitcoin", "usd", 0, 30_000, 10_000, Aggregation.FIRST))
+                .containsExactly(new RatePoint(0, 40000), new RatePoint(10_000, 40010), new RatePoint(20_000, 40020));
+    }
+
+    @Test
+    public void shouldMergeRecentSegmentsWithoutRewritingLargerOnes() throws IOException {
+        TimeSeriesStore store = TimeSeriesStore.open(directory, 8, 3);
+        for (int i = 0; i < 400; i++) {
+            store.append("bitcoin", "usd", i * 1000L, 40000 + i);
+        }
+        store.flush();
+        Path large;
+        try (Stream<Path> files = Files.list(directory)) {
+            large = files.findFirst().orElseThrow();
+        }
+        FileTime written = Files.getLastModifiedTime(large);
+        for (int i = 400; i < 410; i++) {
+            store.append("bitcoin", "usd", i * 1000L, 40000 + i);
+            store.flush();
+        }
+
+        assertThat(store.getStats().segments()).isLessThanOrEqualTo(3);
+        assertThat(large).exists();
+        assertThat(Files.getLastModifiedTime(large)).isEqualTo(written);
+        assertThat(store.getStats().points()).isEqualTo(410);
+        assertThat(store.rateAt("bitcoin", "usd", 405_500)).isEqualTo(new RatePoint(405_000, 40405));
+        assertThat(store.range("bitcoin", "usd", 398_000, 409_000, 4000, Aggregation.FIRST))
+                .containsExactly(new RatePoint(398_000, 40398), new RatePoint(402_000, 40402), new RatePoint(406_000, 40406));
+        TimeSeriesStore reopened = TimeSeriesStore.open(directory, 8, 3);
+        assertThat(reopened.getStats().points()).isEqualTo(410);
+        assertThat(reopened.rateAt("bitcoin", "usd", 409_000).rate()).isEqualTo(40409);
+    }
+}
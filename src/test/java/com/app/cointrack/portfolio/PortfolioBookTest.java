@@ -0,0 +1,74 @@
+package com.app.cointrack.portfolio;
+
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.portfolio.book.PortfolioBook;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class PortfolioBookTest {
+    private final PortfolioBook book = new PortfolioBook();
+
+    @Test
+    public void shouldRevalueOnlyPositionsOfChangedCoin() {
+        book.put("alice", Map.of("bitcoin", 2.0, "ethereum", 10.0), Set.of("usd"));
+        book.put("bob", Map.of("ethereum", 1.0), Set.of("usd", "eur"));
+        book.apply(CurrencyRates.of("bitcoin", Map.of("usd", 40000.0, "eur", 36000.0)));
+        book.apply(CurrencyRates.of("ethereum", Map.of("usd", 2000.0, "eur", 1800.0)));
+
+        int revalued = book.apply(CurrencyRates.of("ethereum", Map.of("usd", 2100.0, "eur", 1800.0)));
+
+        assertThat(revalued).isEqualTo(2);
+        assertThat(book.valuation("alice")).containsExactly(Map.entry("usd", 101000.0));
+        assertThat(book.valuation("bob")).containsEntry("usd", 2100.0).containsEntry("eur", 1800.0);
+        assertThat(book.apply(CurrencyRates.of("ethereum", Map.of("usd", 2100.0)))).isZero();
+        assertThat(book.apply(CurrencyRates.of("solana", Map.of("usd", 100.0)))).isZero();
+    }
+
+    @Test
+    public void shouldLeaveTotalUnknownUntilEveryPositionHasRate() {
+        book.put("alice", Map.of("bitcoin", 1.0, "ethereum", 1.0), Set.of("usd"));
+        book.apply(CurrencyRates.of("bitcoin", Map.of("usd", 40000.0)));
+
+        assertThat(book.valuation("alice")).containsEntry("usd", null);
+
+        book.apply(CurrencyRates.of("ethereum", Map.of("usd", 2000.0)));
+
+        assertThat(book.valuation("alice")).containsEntry("usd", 42000.0);
+    }
+
+    @Test
+    public void shouldKeepIncrementalTotalsEqualToFullRevaluation() {
+        book.put("alice", Map.of("bitcoin", 0.1234, "ethereum", 7.5), Set.of("usd"));
+        Random random = new Random(7);
+        double bitcoin = 0;
+        double ethereum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            bitcoin = 30000 + random.nextDouble() * 20000;
+            ethereum = 1000 + random.nextDouble() * 3000;
+            book.apply(CurrencyRates.of("bitcoin", Map.of("usd", bitcoin)));
+            book.apply(CurrencyRates.of("ethereum", Map.of("usd", ethereum)));
+        }
+
+        assertThat(book.valuation("alice").get("usd")).isCloseTo(0.1234 * bitcoin + 7.5 * ethereum, within(1e-9));
+    }
+
+    @Test
+    public void shouldReplaceAndRemovePortfolios() {
+        book.apply(CurrencyRates.of("bitcoin", Map.of("usd", 40000.0)));
+        book.put("alice", Map.of("bitcoin", 1.0), Set.of("usd"));
+        book.apply(CurrencyRates.of("bitcoin", Map.of("usd", 40000.0)));
+        book.put("alice", Map.of("bitcoin", 3.0), Set.of("usd"));
+
+        assertThat(book.valuation("alice")).containsEntry("usd", 120000.0);
+        assertThat(book.remove("alice")).isTrue();
+        assertThat(book.valuation("alice")).isNull();
+        assertThat(book.getCoins()).isEmpty();
+        assertThat(book.getCurrencies()).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package com.app.cointrack.portfolio;
+
+import com.app.cointrack.IntegrationTest;
+import com.app.cointrack.currency.provider.CurrencyProvider;
+import com.app.cointrack.currency.rate.CurrencyRates;
+import com.app.cointrack.currency.rate.RatesFetchedEvent;
+import com.app.cointrack.portfolio.dto.HoldingDTO;
+import com.app.cointrack.portfolio.dto.PortfolioRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PortfolioIntTest extends IntegrationTest {
+    @MockitoBean
+    private CurrencyProvider providerMock;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void shouldValuePortfolioAndRevalueOnFetchedRates() throws Exception {
+        when(providerMock.getCurrencyAsync(Mockito.eq("bitcoin"), Mockito.anySet()))
+                .thenReturn(CompletableFuture.completedFuture(CurrencyRates.of("bitcoin", Map.of("usd", 40000.0, "eur", 36000.0))));
+        PortfolioRequestDTO dto = PortfolioRequestDTO.builder()
+                .holdings(List.of(new HoldingDTO("bitcoin", 0.5), new HoldingDTO("bitcoin", 1.5)))
+                .currencies(Set.of("USD"))
+                .build();
+
+        mockMvc.perform(put("/portfolios/alice")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(convertObjectToJsonBytes(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.values.usd").value(80000.0))
+                .andExpect(jsonPath("$.complete").value(true));
+
+        eventPublisher.publishEvent(new RatesFetchedEvent(List.of(CurrencyRates.of("bitcoin", Map.of("usd", 41000.0))), Instant.now()));
+
+        mockMvc.perform(get("/portfolios/alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.values.usd").value(82000.0));
+        mockMvc.perform(delete("/portfolios/alice"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/portfolios/alice"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorStatus").value("BAD_REQUEST"));
+    }
+
+    @Test
+    public void shouldRejectHoldingWithoutPositiveQuantity() throws Exception {
+        PortfolioRequestDTO dto = PortfolioRequestDTO.builder()
+                .holdings(List.of(new HoldingDTO("bitcoin", 0)))
+                .currencies(Set.of("usd"))
+                .build();
+
+        mockMvc.perform(put("/portfolios/bob")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(convertObjectToJsonBytes(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldsValidationResults[0].field").value("holdings[0].quantity"));
+    }
+}